@@ -0,0 +1,96 @@
+package net.sectordepruebas.tutorialmod.gradle;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/*
+ * Filtro para processResources: cada modelo que pasa por aqui sale ya optimizado
+ * y, si hay paleta, con sus caras apuntando a la hoja de colores.
+ * Gradle rellena las propiedades con los setters antes de leer.
+ */
+public class ElementModelFilter extends FilterReader {
+    private static final Logger LOGGER = Logging.getLogger(ElementModelFilter.class);
+
+    private File assetsDirectory;
+    private String modelName = "model";
+    private boolean optimize = true;
+    private File paletteFile;
+    private boolean optimized;
+
+    public ElementModelFilter(Reader in) {
+        super(in);
+    }
+
+    public void setAssetsDirectory(File assetsDirectory) {
+        this.assetsDirectory = assetsDirectory;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
+    }
+
+    public void setPaletteFile(File paletteFile) {
+        this.paletteFile = paletteFile;
+    }
+
+    private void optimize() throws IOException {
+        if (optimized) {
+            return;
+        }
+        optimized = true;
+        StringWriter source = new StringWriter();
+        in.transferTo(source);
+        in.close();
+
+        JsonObject model = JsonParser.parseString(source.toString()).getAsJsonObject();
+        TextureSampler sampler = new TextureSampler(assetsDirectory);
+        if (optimize) {
+            ElementModelOptimizer.Result result = new ElementModelOptimizer(sampler).optimize(model);
+            LOGGER.lifecycle("{}: {} -> {} quads ({} ocultos, {} transparentes, {} unidos)", modelName,
+                    result.quadsBefore(), result.quadsAfter(), result.hidden(), result.transparent(), result.merged());
+            model = result.model();
+        }
+        if (paletteFile != null) {
+            TexturePalette.read(paletteFile).remap(model, sampler);
+        }
+        in = new StringReader(new Gson().toJson(model));
+    }
+
+    @Override
+    public int read() throws IOException {
+        optimize();
+        return in.read();
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        optimize();
+        return in.read(buffer, offset, length);
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        optimize();
+        return in.skip(count);
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        optimize();
+        return in.ready();
+    }
+}
@@ -0,0 +1,327 @@
+package net.sectordepruebas.tutorialmod.gradle;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Reduce los quads de un modelo de elementos exportado por Blockbench.
+ * 1. Quita las caras que quedan tapadas por otro cuboide opaco.
+ * 2. Quita las caras cuyo UV solo cubre pixeles transparentes.
+ * 3. Une caras coplanares vecinas que pintan el mismo color de la misma textura.
+ * Solo se tocan los elementos sin rotacion; los rotados se copian tal cual.
+ */
+public class ElementModelOptimizer {
+    private static final double EPSILON = 1.0E-4;
+    private static final String[] DIRECTIONS = {"down", "up", "north", "south", "west", "east"};
+
+    public record Result(JsonObject model, int quadsBefore, int quadsAfter, int hidden, int transparent, int merged) {
+    }
+
+    private final TextureSampler sampler;
+
+    public ElementModelOptimizer(TextureSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    public Result optimize(JsonObject model) {
+        JsonObject textures = model.has("textures") ? model.getAsJsonObject("textures") : new JsonObject();
+        JsonArray elements = model.has("elements") ? model.getAsJsonArray("elements") : new JsonArray();
+
+        List<Box> boxes = new ArrayList<>();
+        List<Face> faces = new ArrayList<>();
+        for (JsonElement json : elements) {
+            Box box = new Box(json.getAsJsonObject());
+            boxes.add(box);
+            JsonObject jsonFaces = box.json.getAsJsonObject("faces");
+            for (String direction : DIRECTIONS) {
+                if (jsonFaces != null && jsonFaces.has(direction)) {
+                    Face face = new Face(box, direction, jsonFaces.getAsJsonObject(direction), textures);
+                    box.faces.add(face);
+                    faces.add(face);
+                }
+            }
+        }
+        for (Box box : boxes) {
+            box.occluder = box.axisAligned && box.faces.size() == 6 && box.solid()
+                    && box.faces.stream().allMatch(face -> face.sample.opaque());
+        }
+
+        int hidden = 0;
+        int transparent = 0;
+        for (Face face : faces) {
+            if (face.sample.kind() == TextureSampler.Kind.TRANSPARENT) {
+                face.removed = true;
+                transparent++;
+            } else if (face.box.axisAligned && isHidden(face, boxes)) {
+                face.removed = true;
+                hidden++;
+            }
+        }
+
+        // Caras de color uniforme agrupadas por plano; dentro de cada grupo se unen las que comparten una arista completa
+        Map<String, List<Rect>> groups = new LinkedHashMap<>();
+        for (Face face : faces) {
+            if (!face.removed && face.box.axisAligned && face.sample.kind() == TextureSampler.Kind.UNIFORM) {
+                groups.computeIfAbsent(face.mergeKey(), key -> new ArrayList<>()).add(new Rect(face));
+            }
+        }
+        JsonArray output = new JsonArray();
+        int merged = 0;
+        List<Rect> flattened = new ArrayList<>();
+        for (List<Rect> group : groups.values()) {
+            int size = group.size();
+            mergeRects(group);
+            merged += size - group.size();
+            for (Rect rect : group) {
+                if (rect.sources.size() > 1) {
+                    rect.sources.forEach(face -> face.removed = true);
+                    flattened.add(rect);
+                }
+            }
+        }
+
+        int quadsAfter = 0;
+        for (Box box : boxes) {
+            JsonObject kept = new JsonObject();
+            for (Face face : box.faces) {
+                if (!face.removed) {
+                    kept.add(face.direction, face.json);
+                }
+            }
+            if (kept.size() > 0) {
+                JsonObject copy = box.json.deepCopy();
+                copy.remove("name");
+                copy.add("faces", kept);
+                if (box.axisAligned) {
+                    copy.remove("rotation");
+                }
+                output.add(copy);
+                quadsAfter += kept.size();
+            }
+        }
+        for (Rect rect : flattened) {
+            output.add(rect.toElement());
+            quadsAfter++;
+        }
+
+        JsonObject result = model.deepCopy();
+        // Los grupos de Blockbench apuntan a indices de elementos que ya no existen, y el juego los ignora
+        result.remove("groups");
+        result.add("elements", output);
+        return new Result(result, faces.size(), quadsAfter, hidden, transparent, merged);
+    }
+
+    private static boolean isHidden(Face face, List<Box> boxes) {
+        int axis = face.axis();
+        int a = (axis + 1) % 3;
+        int b = (axis + 2) % 3;
+        double plane = face.plane();
+        for (Box other : boxes) {
+            if (other == face.box || !other.occluder) {
+                continue;
+            }
+            boolean covers = other.from[a] <= face.box.from[a] + EPSILON && other.to[a] >= face.box.to[a] - EPSILON
+                    && other.from[b] <= face.box.from[b] + EPSILON && other.to[b] >= face.box.to[b] - EPSILON;
+            if (!covers) {
+                continue;
+            }
+            boolean outside = face.positive()
+                    ? other.from[axis] <= plane + EPSILON && other.to[axis] > plane + EPSILON
+                    : other.from[axis] < plane - EPSILON && other.to[axis] >= plane - EPSILON;
+            if (outside) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void mergeRects(List<Rect> rects) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < rects.size() && !changed; i++) {
+                for (int j = i + 1; j < rects.size(); j++) {
+                    if (rects.get(i).absorb(rects.get(j))) {
+                        rects.remove(j);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean same(double first, double second) {
+        return Math.abs(first - second) < EPSILON;
+    }
+
+    private static final class Box {
+        final JsonObject json;
+        final double[] from;
+        final double[] to;
+        final boolean axisAligned;
+        final List<Face> faces = new ArrayList<>();
+        boolean occluder;
+
+        Box(JsonObject json) {
+            this.json = json;
+            this.from = vector(json.getAsJsonArray("from"));
+            this.to = vector(json.getAsJsonArray("to"));
+            JsonObject rotation = json.getAsJsonObject("rotation");
+            this.axisAligned = rotation == null || rotation.get("angle").getAsDouble() == 0.0;
+        }
+
+        boolean solid() {
+            return to[0] - from[0] > EPSILON && to[1] - from[1] > EPSILON && to[2] - from[2] > EPSILON;
+        }
+
+        boolean shade() {
+            return !json.has("shade") || json.get("shade").getAsBoolean();
+        }
+    }
+
+    private final class Face {
+        final Box box;
+        final String direction;
+        final JsonObject json;
+        final String texture;
+        final TextureSampler.Sample sample;
+        boolean removed;
+
+        Face(Box box, String direction, JsonObject json, JsonObject textures) {
+            this.box = box;
+            this.direction = direction;
+            this.json = json;
+            this.texture = resolve(json.get("texture").getAsString(), textures);
+            double[] uv = json.has("uv") ? vector(json.getAsJsonArray("uv")) : null;
+            this.sample = texture == null || uv == null ? TextureSampler.Sample.UNKNOWN : sampler.sample(texture, uv);
+        }
+
+        int axis() {
+            return switch (direction) {
+                case "west", "east" -> 0;
+                case "down", "up" -> 1;
+                default -> 2;
+            };
+        }
+
+        boolean positive() {
+            return direction.equals("up") || direction.equals("south") || direction.equals("east");
+        }
+
+        double plane() {
+            return positive() ? box.to[axis()] : box.from[axis()];
+        }
+
+        String mergeKey() {
+            return direction + '|' + plane() + '|' + json.get("texture").getAsString() + '|' + sample.argb()
+                    + '|' + json.get("tintindex") + '|' + json.get("cullface") + '|' + box.shade();
+        }
+    }
+
+    private final class Rect {
+        final Face face;
+        final int axis;
+        final double[] from;
+        final double[] to;
+        final List<Face> sources = new ArrayList<>();
+
+        Rect(Face face) {
+            this.face = face;
+            this.axis = face.axis();
+            this.from = face.box.from.clone();
+            this.to = face.box.to.clone();
+            this.from[axis] = face.plane();
+            this.to[axis] = face.plane();
+            this.sources.add(face);
+        }
+
+        boolean absorb(Rect other) {
+            if (contains(other) || other.contains(this)) {
+                for (int i = 0; i < 3; i++) {
+                    from[i] = Math.min(from[i], other.from[i]);
+                    to[i] = Math.max(to[i], other.to[i]);
+                }
+                sources.addAll(other.sources);
+                return true;
+            }
+            for (int edge = 0; edge < 3; edge++) {
+                if (edge == axis) {
+                    continue;
+                }
+                int across = 3 - axis - edge;
+                if (!same(from[across], other.from[across]) || !same(to[across], other.to[across])) {
+                    continue;
+                }
+                if (same(to[edge], other.from[edge])) {
+                    to[edge] = other.to[edge];
+                } else if (same(other.to[edge], from[edge])) {
+                    from[edge] = other.from[edge];
+                } else {
+                    continue;
+                }
+                sources.addAll(other.sources);
+                return true;
+            }
+            return false;
+        }
+
+        // Una cara del mismo color dentro de otra en el mismo plano no aporta nada
+        private boolean contains(Rect other) {
+            for (int i = 0; i < 3; i++) {
+                if (other.from[i] < from[i] - EPSILON || other.to[i] > to[i] + EPSILON) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        JsonObject toElement() {
+            JsonObject element = new JsonObject();
+            element.add("from", array(from));
+            element.add("to", array(to));
+            if (!face.box.shade()) {
+                element.addProperty("shade", false);
+            }
+            // El color es uniforme, asi que el UV original sirve estirado sobre la cara unida
+            JsonObject faces = new JsonObject();
+            faces.add(face.direction, face.json);
+            element.add("faces", faces);
+            return element;
+        }
+    }
+
+    static String resolve(String reference, JsonObject textures) {
+        String current = reference;
+        for (int depth = 0; current.startsWith("#") && depth < 16; depth++) {
+            JsonElement next = textures.get(current.substring(1));
+            if (next == null) {
+                return null;
+            }
+            current = next.getAsString();
+        }
+        return current.startsWith("#") ? null : current;
+    }
+
+    static double[] vector(JsonArray array) {
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).getAsDouble();
+        }
+        return values;
+    }
+
+    static JsonArray array(double[] values) {
+        JsonArray array = new JsonArray();
+        for (double value : values) {
+            array.add(value);
+        }
+        return array;
+    }
+}
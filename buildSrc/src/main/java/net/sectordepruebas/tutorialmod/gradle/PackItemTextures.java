@@ -0,0 +1,155 @@
+package net.sectordepruebas.tutorialmod.gradle;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/*
+ * Junta en una sola hoja las texturas de los modelos de items del mod que solo se usan como colores planos.
+ * Una textura queda fuera si alguna cara la muestra con mas de un color, no tiene UV o esta animada.
+ * La hoja y los sprites de un color para las particulas van a resourcesDirectory y la lista de texturas/colores
+ * a paletteFile para el filtro de modelos.
+ */
+public abstract class PackItemTextures extends DefaultTask {
+    @InputDirectory
+    public abstract DirectoryProperty getAssetsDirectory();
+
+    @Input
+    public abstract Property<String> getNamespace();
+
+    @Input
+    public abstract Property<String> getSpriteName();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getResourcesDirectory();
+
+    @OutputFile
+    public abstract RegularFileProperty getPaletteFile();
+
+    @TaskAction
+    public void pack() throws IOException {
+        File assets = getAssetsDirectory().get().getAsFile();
+        String namespace = getNamespace().get();
+        TextureSampler sampler = new TextureSampler(assets);
+
+        Map<String, List<TextureSampler.Sample>> samples = new TreeMap<>();
+        Set<String> rejected = new TreeSet<>();
+        Set<String> particles = new TreeSet<>();
+        File[] models = new File(assets, namespace + "/models/item").listFiles((dir, name) -> name.endsWith(".json"));
+        for (File file : models == null ? new File[0] : models) {
+            JsonObject model;
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                model = JsonParser.parseReader(reader).getAsJsonObject();
+            }
+            if (!model.has("elements") || !model.has("textures")) {
+                continue;
+            }
+            JsonObject textures = model.getAsJsonObject("textures");
+            String particle = ElementModelOptimizer.resolve("#particle", textures);
+            if (particle != null) {
+                particles.add(particle);
+            }
+            for (JsonElement element : model.getAsJsonArray("elements")) {
+                JsonObject faces = element.getAsJsonObject().getAsJsonObject("faces");
+                if (faces == null) {
+                    continue;
+                }
+                for (Map.Entry<String, JsonElement> entry : faces.entrySet()) {
+                    JsonObject face = entry.getValue().getAsJsonObject();
+                    String texture = ElementModelOptimizer.resolve(face.get("texture").getAsString(), textures);
+                    if (texture == null) {
+                        continue;
+                    }
+                    TextureSampler.Sample sample = face.has("uv")
+                            ? sampler.sample(texture, ElementModelOptimizer.vector(face.getAsJsonArray("uv")))
+                            : null;
+                    if (sample == null || sample.kind() == TextureSampler.Kind.MIXED || !packable(assets, namespace, texture)) {
+                        rejected.add(texture);
+                    } else {
+                        samples.computeIfAbsent(texture, key -> new ArrayList<>()).add(sample);
+                    }
+                }
+            }
+        }
+
+        // Los colores solo cuentan si la textura entera entra en la hoja
+        List<String> packed = new ArrayList<>();
+        Set<Integer> colors = new LinkedHashSet<>();
+        samples.forEach((texture, list) -> {
+            if (!rejected.contains(texture)) {
+                packed.add(texture);
+                list.forEach(sample -> colors.add(sample.argb()));
+            }
+        });
+        // Cada particle empaquetada se queda con el color que mas pintan sus caras
+        Map<String, Integer> particleColors = new TreeMap<>();
+        for (String texture : particles) {
+            if (packed.contains(texture)) {
+                Map<Integer, Integer> counts = new HashMap<>();
+                for (TextureSampler.Sample sample : samples.get(texture)) {
+                    if (sample.kind() == TextureSampler.Kind.UNIFORM) {
+                        counts.merge(sample.argb(), 1, Integer::sum);
+                    }
+                }
+                counts.entrySet().stream().max(Map.Entry.comparingByValue())
+                        .ifPresent(entry -> particleColors.put(texture, entry.getKey()));
+            }
+        }
+
+        String sprite = namespace + ":" + getSpriteName().get();
+        TexturePalette palette = new TexturePalette(sprite, packed, new ArrayList<>(colors), particleColors);
+        palette.write(getPaletteFile().get().getAsFile());
+
+        File textures = new File(getResourcesDirectory().get().getAsFile(), "assets/" + namespace + "/textures");
+        File output = new File(textures, getSpriteName().get() + ".png");
+        Files.createDirectories(output.toPath().getParent());
+        ImageIO.write(palette.draw(), "png", output);
+        for (int argb : new LinkedHashSet<>(particleColors.values())) {
+            String particle = palette.particleSprite(argb);
+            ImageIO.write(palette.drawParticle(argb), "png", new File(textures, particle.substring(particle.indexOf(':') + 1) + ".png"));
+        }
+
+        long before = 0;
+        for (String texture : packed) {
+            before += sampler.image(texture).map(image -> (long) image.getWidth() * image.getHeight()).orElse(0L);
+        }
+        long after = (long) palette.size() * palette.size();
+        getLogger().lifecycle("{}: {} texturas ({} texeles) -> 1 sprite {}x{} ({} texeles), {} texeles menos en el atlas ({}%)",
+                sprite, packed.size(), before, palette.size(), palette.size(), after, before - after,
+                before == 0 ? 0 : (before - after) * 100 / before);
+        if (!rejected.isEmpty()) {
+            getLogger().lifecycle("{}: sin empaquetar {}", sprite, rejected);
+        }
+    }
+
+    // Solo texturas del propio mod; las animadas necesitan su .mcmeta y se quedan como sprite propio
+    private static boolean packable(File assets, String namespace, String texture) {
+        String prefix = namespace + ":";
+        return texture.startsWith(prefix)
+                && !new File(assets, namespace + "/textures/" + texture.substring(prefix.length()) + ".png.mcmeta").exists();
+    }
+}
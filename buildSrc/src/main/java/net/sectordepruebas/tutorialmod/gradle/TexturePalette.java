@@ -0,0 +1,178 @@
+package net.sectordepruebas.tutorialmod.gradle;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+ * Hoja de colores que reemplaza a las texturas del mod cuyas caras solo pintan colores planos.
+ * Cada color ocupa una celda de 4x4 texeles y las caras apuntan a los 2x2 del centro, asi el filtrado y los
+ * niveles de mipmap 1 y 2 no mezclan colores vecinos; en los niveles 3 y 4 una celda es menos de un texel
+ * y si se mezcla con las de al lado, solo visible con el item muy lejos.
+ * Las particulas usan el sprite entero, asi que las texturas empaquetadas que hacen de particle
+ * apuntan a un sprite aparte de un solo color en vez de a la hoja. Ese sprite y la hoja miden al menos 16x16:
+ * el atlas baja su nivel de mipmap al del sprite mas chico que cose.
+ */
+public class TexturePalette {
+    public static final int CELL = 4;
+    public static final int MIN_SPRITE = 16;
+    public static final String KEY = "paleta";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private String sprite;
+    private int size;
+    private List<String> textures = new ArrayList<>();
+    private List<Integer> colors = new ArrayList<>();
+    private Map<String, Integer> particles = new TreeMap<>();
+
+    public TexturePalette(String sprite, List<String> textures, List<Integer> colors, Map<String, Integer> particles) {
+        this.sprite = sprite;
+        this.textures = textures;
+        this.colors = colors;
+        this.particles = particles;
+        int perRow = (int) Math.ceil(Math.sqrt(Math.max(1, colors.size())));
+        this.size = Math.max(MIN_SPRITE, Integer.highestOneBit(perRow * CELL - 1) << 1);
+    }
+
+    public static TexturePalette read(File file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, TexturePalette.class);
+        }
+    }
+
+    public void write(File file) throws IOException {
+        Files.createDirectories(file.toPath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    public String sprite() {
+        return sprite;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<String> textures() {
+        return textures;
+    }
+
+    // Rutas dentro del jar de las texturas que ya no hace falta empaquetar
+    public Set<String> texturePaths() {
+        Set<String> paths = new HashSet<>();
+        for (String texture : textures) {
+            int colon = texture.indexOf(':');
+            paths.add("assets/" + texture.substring(0, colon) + "/textures/" + texture.substring(colon + 1) + ".png");
+        }
+        return paths;
+    }
+
+    public boolean packs(String texture) {
+        return textures.contains(texture);
+    }
+
+    // Color de cada textura empaquetada que algun modelo usa como particle
+    public Map<String, Integer> particles() {
+        return particles;
+    }
+
+    public String particleSprite(int argb) {
+        return sprite + "_" + String.format("%08x", argb);
+    }
+
+    public BufferedImage drawParticle(int argb) {
+        BufferedImage image = new BufferedImage(MIN_SPRITE, MIN_SPRITE, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < MIN_SPRITE; y++) {
+            for (int x = 0; x < MIN_SPRITE; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    public BufferedImage draw() {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        int perRow = size / CELL;
+        for (int i = 0; i < colors.size(); i++) {
+            int x0 = i % perRow * CELL;
+            int y0 = i / perRow * CELL;
+            for (int y = y0; y < y0 + CELL; y++) {
+                for (int x = x0; x < x0 + CELL; x++) {
+                    image.setRGB(x, y, colors.get(i));
+                }
+            }
+        }
+        return image;
+    }
+
+    private double[] uv(int argb) {
+        int index = colors.indexOf(argb);
+        if (index < 0) {
+            throw new IllegalStateException("Color " + Integer.toHexString(argb) + " no esta en la paleta " + sprite);
+        }
+        int perRow = size / CELL;
+        double texel = 16.0 / size;
+        double u = (index % perRow * CELL + 1) * texel;
+        double v = (index / perRow * CELL + 1) * texel;
+        return new double[]{u, v, u + 2 * texel, v + 2 * texel};
+    }
+
+    // Cambia las caras que usan texturas empaquetadas para que apunten a su color dentro de la hoja
+    public void remap(JsonObject model, TextureSampler sampler) {
+        if (!model.has("textures") || !model.has("elements")) {
+            return;
+        }
+        JsonObject textures = model.getAsJsonObject("textures");
+        boolean used = false;
+        for (JsonElement element : model.getAsJsonArray("elements")) {
+            JsonObject faces = element.getAsJsonObject().getAsJsonObject("faces");
+            if (faces == null) {
+                continue;
+            }
+            for (Map.Entry<String, JsonElement> entry : faces.entrySet()) {
+                JsonObject face = entry.getValue().getAsJsonObject();
+                String texture = ElementModelOptimizer.resolve(face.get("texture").getAsString(), textures);
+                if (texture == null || !packs(texture) || !face.has("uv")) {
+                    continue;
+                }
+                TextureSampler.Sample sample = sampler.sample(texture, ElementModelOptimizer.vector(face.getAsJsonArray("uv")));
+                face.add("uv", ElementModelOptimizer.array(uv(sample.argb())));
+                face.remove("rotation");
+                face.addProperty("texture", "#" + KEY);
+                used = true;
+            }
+        }
+        if (!used) {
+            return;
+        }
+        JsonObject remapped = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : textures.entrySet()) {
+            String texture = ElementModelOptimizer.resolve("#" + entry.getKey(), textures);
+            if (texture == null || !packs(texture)) {
+                remapped.add(entry.getKey(), entry.getValue());
+            } else if (entry.getKey().equals("particle")) {
+                Integer color = particles.get(texture);
+                remapped.addProperty("particle", color != null ? particleSprite(color) : "#" + KEY);
+            }
+        }
+        remapped.addProperty(KEY, sprite);
+        model.add("textures", remapped);
+    }
+}
@@ -0,0 +1,86 @@
+package net.sectordepruebas.tutorialmod.gradle;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Lee las texturas del mod para saber que pinta una cara sin tener que renderizarla.
+ * Los modelos de Blockbench usan UVs en unidades de 0 a 16 sobre cualquier tamanio de PNG.
+ */
+public class TextureSampler {
+    public enum Kind { TRANSPARENT, UNIFORM, MIXED }
+
+    public record Sample(Kind kind, int argb, boolean opaque) {
+        static final Sample UNKNOWN = new Sample(Kind.MIXED, 0, false);
+    }
+
+    private final File assetsDirectory;
+    private final Map<String, Optional<BufferedImage>> cache = new HashMap<>();
+
+    public TextureSampler(File assetsDirectory) {
+        this.assetsDirectory = assetsDirectory;
+    }
+
+    public Optional<BufferedImage> image(String texture) {
+        return cache.computeIfAbsent(texture, this::load);
+    }
+
+    private Optional<BufferedImage> load(String texture) {
+        int colon = texture.indexOf(':');
+        String namespace = colon < 0 ? "minecraft" : texture.substring(0, colon);
+        String path = colon < 0 ? texture : texture.substring(colon + 1);
+        File file = new File(assetsDirectory, namespace + "/textures/" + path + ".png");
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(ImageIO.read(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + file, e);
+        }
+    }
+
+    public Sample sample(String texture, double[] uv) {
+        Optional<BufferedImage> loaded = image(texture);
+        if (loaded.isEmpty()) {
+            return Sample.UNKNOWN;
+        }
+        BufferedImage image = loaded.get();
+        int x0 = texel(Math.min(uv[0], uv[2]), image.getWidth(), false);
+        int x1 = texel(Math.max(uv[0], uv[2]), image.getWidth(), true);
+        int y0 = texel(Math.min(uv[1], uv[3]), image.getHeight(), false);
+        int y1 = texel(Math.max(uv[1], uv[3]), image.getHeight(), true);
+        x1 = Math.max(x0, x1);
+        y1 = Math.max(y0, y1);
+
+        boolean transparent = true;
+        boolean uniform = true;
+        boolean opaque = true;
+        int first = image.getRGB(x0, y0);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                int argb = image.getRGB(x, y);
+                int alpha = argb >>> 24;
+                transparent &= alpha == 0;
+                opaque &= alpha == 255;
+                uniform &= argb == first;
+            }
+        }
+        if (transparent) {
+            return new Sample(Kind.TRANSPARENT, 0, false);
+        }
+        return new Sample(uniform ? Kind.UNIFORM : Kind.MIXED, uniform ? first : 0, opaque);
+    }
+
+    private static int texel(double coordinate, int size, boolean upper) {
+        double scaled = coordinate * size / 16.0;
+        int index = upper ? (int) Math.ceil(scaled - 1.0E-6) - 1 : (int) Math.floor(scaled + 1.0E-6);
+        return Math.max(0, Math.min(size - 1, index));
+    }
+}
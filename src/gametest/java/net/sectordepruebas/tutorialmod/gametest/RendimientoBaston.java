@@ -0,0 +1,167 @@
+package net.sectordepruebas.tutorialmod.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import net.minecraft.SharedConstants;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.GameTestDontPrefix;
+import net.sectordepruebas.tutorialmod.bastones;
+import net.sectordepruebas.tutorialmod.item.EstadoBaston;
+import net.sectordepruebas.tutorialmod.item.ModDataComponents;
+import net.sectordepruebas.tutorialmod.item.ModItems;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Escenarios de rendimiento: N jugadores falsos con el baston disparan una bola cada tick durante un numero fijo
+ * de ticks en la arena de 16x16. El estado y la durabilidad del baston se reinician antes de cada uso,
+ * si no la carga, el calor y el enfriamiento los dejarian en un disparo cada 10-20 ticks.
+ * Cada escenario va en su propio batch para que no se ejecuten a la vez y se midan entre si.
+ * Al terminar cada uno se reescribe el informe JSON con los percentiles de MSPT y la asignacion de memoria
+ * del hilo del servidor; el fichero lleva la version del mod para comparar entre versiones.
+ */
+@GameTestHolder(bastones.MOD_ID)
+@GameTestDontPrefix
+public class RendimientoBaston {
+    private static final int TICKS = Integer.getInteger(bastones.MOD_ID + ".ticksRendimiento", 400);
+    private static final String INFORME = System.getProperty(bastones.MOD_ID + ".informeRendimiento", "gametest-reports");
+    private static final int TIEMPO_MAXIMO = 12000;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, JsonObject> ESCENARIOS = new TreeMap<>();
+
+    @GameTest(template = "arena", batch = "rendimiento_0", timeoutTicks = TIEMPO_MAXIMO)
+    public static void sinJugadores(GameTestHelper helper) {
+        escenario(helper, "jugadores_0", 0);
+    }
+
+    @GameTest(template = "arena", batch = "rendimiento_1", timeoutTicks = TIEMPO_MAXIMO)
+    public static void unJugador(GameTestHelper helper) {
+        escenario(helper, "jugadores_1", 1);
+    }
+
+    @GameTest(template = "arena", batch = "rendimiento_8", timeoutTicks = TIEMPO_MAXIMO)
+    public static void ochoJugadores(GameTestHelper helper) {
+        escenario(helper, "jugadores_8", 8);
+    }
+
+    @GameTest(template = "arena", batch = "rendimiento_32", timeoutTicks = TIEMPO_MAXIMO)
+    public static void treintaYDosJugadores(GameTestHelper helper) {
+        escenario(helper, "jugadores_32", 32);
+    }
+
+    private static void escenario(GameTestHelper helper, String nombre, int jugadores) {
+        MinecraftServer server = helper.getLevel().getServer();
+        List<ServerPlayer> tiradores = new ArrayList<>();
+        for (int i = 0; i < jugadores; i++) {
+            ServerPlayer player = helper.makeMockServerPlayerInLevel();
+            // En corro mirando hacia fuera y un poco hacia abajo, asi las bolas tambien prenden el suelo
+            double angulo = Math.PI * 2 * i / jugadores;
+            Vec3 pos = helper.absoluteVec(new Vec3(8 + Math.sin(angulo) * 3, 1, 8 + Math.cos(angulo) * 3));
+            player.moveTo(pos.x, pos.y, pos.z, (float) -Math.toDegrees(angulo), 30.0F);
+            player.setItemInHand(InteractionHand.MAIN_HAND, new ItemStack(ModItems.BASTONDEFUEGO.get()));
+            tiradores.add(player);
+        }
+
+        long[] ticks = new long[TICKS];
+        int[] medidos = new int[1];
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] asignadoInicio = new long[]{-1};
+        long[] inicio = new long[1];
+
+        helper.onEachTick(() -> {
+            if (asignadoInicio[0] < 0) {
+                asignadoInicio[0] = hilos.getThreadAllocatedBytes(Thread.currentThread().threadId());
+                inicio[0] = System.nanoTime();
+            } else if (medidos[0] < TICKS) {
+                // Tiempo del tick anterior, que ya termino entero
+                long[] tiempos = server.getTickTimesNanos();
+                ticks[medidos[0]++] = tiempos[(server.getTickCount() - 1) % tiempos.length];
+            }
+            for (ServerPlayer player : tiradores) {
+                ItemStack baston = player.getMainHandItem();
+                baston.set(ModDataComponents.ESTADO_BASTON.get(), EstadoBaston.INICIAL);
+                baston.setDamageValue(0);
+                baston.use(player.level(), player, InteractionHand.MAIN_HAND);
+            }
+        });
+        helper.runAfterDelay(TICKS + 1, () -> {
+            long asignado = hilos.getThreadAllocatedBytes(Thread.currentThread().threadId()) - asignadoInicio[0];
+            double segundos = (System.nanoTime() - inicio[0]) / 1.0E9;
+            for (ServerPlayer player : tiradores) {
+                server.getPlayerList().remove(player);
+            }
+            guardar(nombre, jugadores, Arrays.copyOf(ticks, medidos[0]), asignado, segundos);
+            helper.succeed();
+        });
+    }
+
+    private static synchronized void guardar(String nombre, int jugadores, long[] ticks, long asignado, double segundos) {
+        Arrays.sort(ticks);
+        JsonObject mspt = new JsonObject();
+        mspt.addProperty("media", Arrays.stream(ticks).average().orElse(0) / 1.0E6);
+        mspt.addProperty("p50", percentil(ticks, 0.50));
+        mspt.addProperty("p90", percentil(ticks, 0.90));
+        mspt.addProperty("p99", percentil(ticks, 0.99));
+        mspt.addProperty("max", ticks.length == 0 ? 0 : ticks[ticks.length - 1] / 1.0E6);
+
+        JsonObject memoria = new JsonObject();
+        memoria.addProperty("bytesPorTick", ticks.length == 0 ? 0 : asignado / ticks.length);
+        memoria.addProperty("mbPorSegundo", segundos == 0 ? 0 : asignado / segundos / (1024 * 1024));
+
+        JsonObject escenario = new JsonObject();
+        escenario.addProperty("jugadores", jugadores);
+        escenario.addProperty("ticks", ticks.length);
+        escenario.add("mspt", mspt);
+        escenario.add("asignacion", memoria);
+        ESCENARIOS.put(nombre, escenario);
+
+        String version = ModList.get().getModContainerById(bastones.MOD_ID)
+                .map(container -> container.getModInfo().getVersion().toString())
+                .orElse("desconocida");
+        JsonObject informe = new JsonObject();
+        informe.addProperty("mod", bastones.MOD_ID);
+        informe.addProperty("version", version);
+        informe.addProperty("minecraft", SharedConstants.getCurrentVersion().getName());
+        informe.addProperty("java", System.getProperty("java.version"));
+        JsonObject escenarios = new JsonObject();
+        ESCENARIOS.forEach(escenarios::add);
+        informe.add("escenarios", escenarios);
+
+        Path fichero = Path.of(INFORME, "rendimiento-" + version + ".json");
+        try {
+            Files.createDirectories(fichero.getParent());
+            try (Writer writer = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8)) {
+                GSON.toJson(informe, writer);
+            }
+        } catch (IOException e) {
+            bastones.LOGGER.error("No se pudo escribir el informe de rendimiento {}", fichero, e);
+        }
+    }
+
+    private static double percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int i = (int) Math.ceil(p * ordenados.length) - 1;
+        return ordenados[Math.clamp(i, 0, ordenados.length - 1)] / 1.0E6;
+    }
+}
@@ -0,0 +1,22 @@
+package net.sectordepruebas.tutorialmod.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/*
+ * Los registros de vanilla tienen que estar cargados antes de tocar items, bloques o tags.
+ */
+final class Arranque {
+    private static boolean hecho;
+
+    private Arranque() {
+    }
+
+    static synchronized void registros() {
+        if (!hecho) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            hecho = true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.sectordepruebas.tutorialmod.benchmark;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.sectordepruebas.tutorialmod.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Lecturas de la foto de la config como las hace el baston en cada disparo, y pertenencia a la lista de items
+ * con el mismo Set inmutable que guarda la foto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigBenchmark {
+    private Set<Item> items;
+    private Item[] consultas;
+
+    @Setup
+    public void preparar() {
+        Arranque.registros();
+        List<Item> items = List.of(Items.IRON_INGOT, Items.GOLD_INGOT, Items.BLAZE_ROD, Items.FIRE_CHARGE);
+        this.items = Set.copyOf(items);
+        consultas = new Item[]{Items.IRON_INGOT, Items.STONE, Items.BLAZE_ROD, Items.DIRT, Items.FIRE_CHARGE, Items.STICK};
+    }
+
+    @Benchmark
+    public float snapshotUnAjuste() {
+        return Config.get().fireBoltDamage();
+    }
+
+    @Benchmark
+    public void snapshotDisparo(Blackhole blackhole) {
+        Config.Snapshot config = Config.get();
+        blackhole.consume(config.maxFireBolts());
+        blackhole.consume(config.fireBoltDamage());
+        blackhole.consume(config.fireBoltSpeed());
+        blackhole.consume(config.fireBoltCooldown());
+    }
+
+    @Benchmark
+    public void items(Blackhole blackhole) {
+        for (Item item : consultas) {
+            blackhole.consume(items.contains(item));
+        }
+    }
+}
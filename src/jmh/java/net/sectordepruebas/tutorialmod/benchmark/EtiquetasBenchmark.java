@@ -0,0 +1,90 @@
+package net.sectordepruebas.tutorialmod.benchmark;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.sectordepruebas.tutorialmod.fuego.TransformacionesDeFuego;
+import net.sectordepruebas.tutorialmod.item.MineriaEnArea;
+import net.sectordepruebas.tutorialmod.item.util.ModTags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Consultas de tags del mod en el camino caliente: el filtro de bloques del minado en area
+ * y la pertenencia a transformable_items por tag frente a la tabla por id de TransformacionesDeFuego.
+ * Sin servidor no hay recarga de datos ni recetas, asi que los tags se enlazan a mano con unos pocos valores
+ * y la tabla se llena con un resultado cualquiera para esos mismos items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EtiquetasBenchmark {
+    private BlockState[] bloques;
+    private ItemStack[] pilas;
+    private ItemStack[] resultados;
+
+    @Setup
+    public void preparar() {
+        Arranque.registros();
+        BuiltInRegistries.BLOCK.bindTags(Map.<TagKey<Block>, List<Holder<Block>>>of(
+                ModTags.Blocks.NECESITA_HERRAMIENTA_ZOMER, holders(BuiltInRegistries.BLOCK,
+                        Blocks.STONE, Blocks.DEEPSLATE, Blocks.IRON_ORE, Blocks.COAL_ORE, Blocks.OBSIDIAN),
+                ModTags.Blocks.INCORRECT__HERRAMIENTA_ZOMER, holders(BuiltInRegistries.BLOCK, Blocks.OBSIDIAN)));
+        List<Item> items = List.of(Items.RAW_IRON, Items.RAW_GOLD, Items.SAND, Items.BEEF, Items.COBBLESTONE);
+        BuiltInRegistries.ITEM.bindTags(Map.<TagKey<Item>, List<Holder<Item>>>of(
+                ModTags.Blocks.Items.TRANSFORMABLE_ITEMS, holders(BuiltInRegistries.ITEM, items.toArray(Item[]::new))));
+        resultados = new ItemStack[BuiltInRegistries.ITEM.size()];
+        for (Item item : items) {
+            resultados[BuiltInRegistries.ITEM.getId(item)] = new ItemStack(Items.IRON_INGOT);
+        }
+
+        bloques = new BlockState[]{Blocks.STONE.defaultBlockState(), Blocks.DIRT.defaultBlockState(),
+                Blocks.IRON_ORE.defaultBlockState(), Blocks.OBSIDIAN.defaultBlockState(), Blocks.OAK_LOG.defaultBlockState()};
+        pilas = new ItemStack[]{new ItemStack(Items.RAW_IRON), new ItemStack(Items.STICK), new ItemStack(Items.BEEF),
+                new ItemStack(Items.DIAMOND), new ItemStack(Items.SAND)};
+    }
+
+    @SafeVarargs
+    private static <T> List<Holder<T>> holders(Registry<T> registry, T... valores) {
+        return Arrays.stream(valores).map(registry::wrapAsHolder).toList();
+    }
+
+    @Benchmark
+    public void minable(Blackhole blackhole) {
+        for (BlockState state : bloques) {
+            blackhole.consume(MineriaEnArea.minable(state));
+        }
+    }
+
+    @Benchmark
+    public void transformablePorTag(Blackhole blackhole) {
+        for (ItemStack stack : pilas) {
+            blackhole.consume(stack.is(ModTags.Blocks.Items.TRANSFORMABLE_ITEMS));
+        }
+    }
+
+    @Benchmark
+    public void transformablePorTabla(Blackhole blackhole) {
+        for (ItemStack stack : pilas) {
+            blackhole.consume(TransformacionesDeFuego.resultado(resultados, stack.getItem()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.sectordepruebas.tutorialmod.benchmark;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.client.renderer.block.model.BlockModel;
+import net.sectordepruebas.tutorialmod.bastones;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Carga de bastondefuego.json tal como sale del jar (optimizado por processResources) y tal como esta en src,
+ * para ver cuanto ahorra el optimizador al leer el modelo. Sin el cargador de geometrias de Forge se lee solo
+ * la parte de elementos: se quitan "loader" y "modos", que son del BastonModel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModeloBenchmark {
+    private static final String MODELO = "/assets/" + bastones.MOD_ID + "/models/item/bastondefuego.json";
+
+    @Param({"empaquetado", "original"})
+    public String version;
+
+    private String json;
+
+    @Setup
+    public void preparar() throws IOException {
+        Arranque.registros();
+        JsonObject modelo;
+        if (version.equals("original")) {
+            try (Reader reader = Files.newBufferedReader(Path.of(System.getProperty(bastones.MOD_ID + ".modeloOriginal")))) {
+                modelo = JsonParser.parseReader(reader).getAsJsonObject();
+            }
+        } else {
+            try (InputStream stream = ModeloBenchmark.class.getResourceAsStream(MODELO)) {
+                if (stream == null) {
+                    throw new IOException("No esta " + MODELO + " en el classpath");
+                }
+                modelo = JsonParser.parseReader(new InputStreamReader(stream, StandardCharsets.UTF_8)).getAsJsonObject();
+            }
+        }
+        modelo.remove("loader");
+        modelo.remove("modos");
+        json = modelo.toString();
+    }
+
+    @Benchmark
+    public BlockModel cargar() {
+        return BlockModel.fromString(json);
+    }
+}
@@ -10,7 +10,8 @@ import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 // An example config class. This is not required, but it's a good idea to have one to keep your config organized.
 // Demonstrates how to use Forge's config APIs
@@ -37,28 +38,124 @@ public class Config
             .comment("A list of items to log on common setup.")
             .defineListAllowEmpty("items", List.of("minecraft:iron_ingot"), Config::validateItemName);
 
+    private static final ForgeConfigSpec.IntValue MAX_FIRE_BOLTS = BUILDER
+            .comment("Maximum number of fire staff bolts alive at the same time in each dimension")
+            .defineInRange("maxFireBolts", 2048, 0, 65536);
+
+    private static final ForgeConfigSpec.DoubleValue FIRE_BOLT_DAMAGE = BUILDER
+            .comment("Damage dealt by a fire staff bolt")
+            .defineInRange("fireBoltDamage", 5.0, 0.0, 1024.0);
+
+    private static final ForgeConfigSpec.DoubleValue FIRE_BOLT_SPEED = BUILDER
+            .comment("Fire staff bolt speed in blocks per tick")
+            .defineInRange("fireBoltSpeed", 1.5, 0.1, 8.0);
+
+    private static final ForgeConfigSpec.IntValue FIRE_BOLT_LIFETIME = BUILDER
+            .comment("Ticks a fire staff bolt flies before burning out")
+            .defineInRange("fireBoltLifetime", 60, 1, 1200);
+
+    private static final ForgeConfigSpec.IntValue FIRE_BOLT_COOLDOWN = BUILDER
+            .comment("Ticks between two shots of the same fire staff")
+            .defineInRange("fireBoltCooldown", 10, 0, 1200);
+
+    private static final ForgeConfigSpec.DoubleValue TRANSFORM_RADIUS = BUILDER
+            .comment("Radius in blocks around the player in which the fire staff converts dropped transformable items")
+            .defineInRange("transformRadius", 6.0, 1.0, 32.0);
+
+    private static final ForgeConfigSpec.IntValue FIRE_IGNITE_RADIUS = BUILDER
+            .comment("Radius in blocks of the fire a staff bolt lights where it hits a block, 0 lights only the hit block")
+            .defineInRange("fireIgniteRadius", 2, 0, 8);
+
+    private static final ForgeConfigSpec.IntValue BLOCK_UPDATE_BUDGET_MICROS = BUILDER
+            .comment("Microseconds per tick and dimension spent applying queued area block changes from the staff")
+            .defineInRange("blockUpdateBudgetMicros", 2000, 50, 50000);
+
+    private static final ForgeConfigSpec.EnumValue<MiningMode> MINING_MODE = BUILDER
+            .comment("How the fire staff mines blocks tagged conexionb:needs_zomer_tool: OFF mines one block,",
+                    "AREA mines a 3x3 face miningDepth blocks deep and VEIN mines the connected blocks of the same type.",
+                    "Sneaking always mines a single block")
+            .defineEnum("miningMode", MiningMode.AREA);
+
+    private static final ForgeConfigSpec.IntValue MINING_DEPTH = BUILDER
+            .comment("Depth in blocks of the AREA mining mode")
+            .defineInRange("miningDepth", 1, 1, 16);
+
+    private static final ForgeConfigSpec.IntValue VEIN_MINING_LIMIT = BUILDER
+            .comment("Maximum number of extra blocks broken by the VEIN mining mode")
+            .defineInRange("veinMiningLimit", 64, 1, 512);
+
     static final ForgeConfigSpec SPEC = BUILDER.build();
 
-    public static boolean logDirtBlock;
-    public static int magicNumber;
-    public static String magicNumberIntroduction;
-    public static Set<Item> items;
+    public enum MiningMode {
+        OFF, AREA, VEIN
+    }
+
+    /*
+     * Todo lo que lee el mod sale de una foto inmutable publicada en una sola referencia volatile.
+     * Quien lea en medio de una recarga ve la foto vieja o la nueva entera, nunca una mezcla,
+     * y en el camino caliente leer un ajuste es cargar la foto y un campo.
+     */
+    public record Snapshot(boolean logDirtBlock, int magicNumber, String magicNumberIntroduction, Set<Item> items,
+                           int maxFireBolts, float fireBoltDamage, double fireBoltSpeed, int fireBoltLifetime,
+                           int fireBoltCooldown, double transformRadius, int fireIgniteRadius, int blockUpdateBudgetMicros,
+                           MiningMode miningMode, int miningDepth, int veinMiningLimit) {
+    }
+
+    private static final List<Consumer<Snapshot>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile Snapshot snapshot = read(true);
+
+    public static Snapshot get() {
+        return snapshot;
+    }
+
+    // Los listeners corren en el hilo que cambio la config (el del watcher de ficheros en una recarga)
+    public static void addListener(Consumer<Snapshot> listener) {
+        LISTENERS.add(listener);
+    }
 
     private static boolean validateItemName(final Object obj)
     {
         return obj instanceof final String itemName && ForgeRegistries.ITEMS.containsKey(ResourceLocation.tryParse(itemName));
     }
 
+    // Con defaults se usa antes de que exista el fichero, cuando los registros todavia no estan listos para la lista de items
+    private static Snapshot read(boolean defaults) {
+        return new Snapshot(
+                value(LOG_DIRT_BLOCK, defaults),
+                value(MAGIC_NUMBER, defaults),
+                value(MAGIC_NUMBER_INTRODUCTION, defaults),
+                defaults ? Set.of() : Set.copyOf(ITEM_STRINGS.get().stream()
+                        .map(itemName -> ForgeRegistries.ITEMS.getValue(ResourceLocation.tryParse(itemName)))
+                        .toList()),
+                value(MAX_FIRE_BOLTS, defaults),
+                value(FIRE_BOLT_DAMAGE, defaults).floatValue(),
+                value(FIRE_BOLT_SPEED, defaults),
+                value(FIRE_BOLT_LIFETIME, defaults),
+                value(FIRE_BOLT_COOLDOWN, defaults),
+                value(TRANSFORM_RADIUS, defaults),
+                value(FIRE_IGNITE_RADIUS, defaults),
+                value(BLOCK_UPDATE_BUDGET_MICROS, defaults),
+                value(MINING_MODE, defaults),
+                value(MINING_DEPTH, defaults),
+                value(VEIN_MINING_LIMIT, defaults));
+    }
+
+    private static <T> T value(ForgeConfigSpec.ConfigValue<T> value, boolean defaults) {
+        return defaults ? value.getDefault() : value.get();
+    }
+
+    private static void publish(Snapshot next) {
+        snapshot = next;
+        for (Consumer<Snapshot> listener : LISTENERS) {
+            listener.accept(next);
+        }
+    }
+
     @SubscribeEvent
     static void onLoad(final ModConfigEvent event)
     {
-        logDirtBlock = LOG_DIRT_BLOCK.get();
-        magicNumber = MAGIC_NUMBER.get();
-        magicNumberIntroduction = MAGIC_NUMBER_INTRODUCTION.get();
-
-        // convert the list of strings into a set of items
-        items = ITEM_STRINGS.get().stream()
-                .map(itemName -> ForgeRegistries.ITEMS.getValue(ResourceLocation.tryParse(itemName)))
-                .collect(Collectors.toSet());
+        if (event.getConfig().getSpec() == SPEC) {
+            publish(read(false));
+        }
     }
 }
@@ -1,8 +1,10 @@
 package net.sectordepruebas.tutorialmod;
 
 import com.mojang.logging.LogUtils;
+import net.minecraft.client.renderer.item.ItemProperties;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ModelEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.BuildCreativeModeTabContentsEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
@@ -14,6 +16,9 @@ import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.sectordepruebas.tutorialmod.client.model.BastonModel;
+import net.sectordepruebas.tutorialmod.fuego.CambiosDeBloques;
+import net.sectordepruebas.tutorialmod.item.ModDataComponents;
 import net.sectordepruebas.tutorialmod.item.ModItems;
 import org.slf4j.Logger;
 
@@ -26,6 +31,7 @@ public class bastones {
         IEventBus modEventBus = FMLJavaModLoadingContext.get().getModEventBus();
         modEventBus.addListener(this::commonSetup);
         MinecraftForge.EVENT_BUS.register(this);
+        ModDataComponents.register(modEventBus);
         ModItems.register(modEventBus);
         modEventBus.addListener(this::addCreative);
         ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, Config.SPEC);
@@ -44,13 +50,19 @@ public class bastones {
 
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
-
+        CambiosDeBloques.iniciar(event.getServer());
     }
     @Mod.EventBusSubscriber(modid = MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
     public static class ClientModEvents {
         @SubscribeEvent
         public static void onClientSetup(FMLClientSetupEvent event) {
+            event.enqueueWork(() -> ItemProperties.register(ModItems.BASTONDEFUEGO.get(),
+                    BastonModel.MODO, BastonModel.MODO_FUNCION));
+        }
 
+        @SubscribeEvent
+        public static void onRegisterGeometryLoaders(ModelEvent.RegisterGeometryLoaders event) {
+            event.register("baston", BastonModel.Loader.INSTANCE);
         }
     }
 }
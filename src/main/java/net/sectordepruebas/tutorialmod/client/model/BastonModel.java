@@ -0,0 +1,139 @@
+package net.sectordepruebas.tutorialmod.client.model;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.math.Transformation;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.block.model.ItemOverrides;
+import net.minecraft.client.renderer.item.ClampedItemPropertyFunction;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.Material;
+import net.minecraft.client.resources.model.ModelBaker;
+import net.minecraft.client.resources.model.ModelState;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemDisplayContext;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.client.model.BakedModelWrapper;
+import net.minecraftforge.client.model.ElementsModel;
+import net.minecraftforge.client.model.geometry.IGeometryBakingContext;
+import net.minecraftforge.client.model.geometry.IGeometryLoader;
+import net.minecraftforge.client.model.geometry.IUnbakedGeometry;
+import net.sectordepruebas.tutorialmod.bastones;
+import net.sectordepruebas.tutorialmod.item.BastonModo;
+import org.joml.Matrix4f;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * Modelo del baston de fuego: la malla se hornea una sola vez y los modos arco/lanzador
+ * son vistas sobre esa misma malla que solo cambian la transformacion al dibujarse.
+ *
+ * "modos": { "arco": <transform>, "lanzador": <transform> } usa el mismo formato que "transform" de Forge.
+ */
+public class BastonModel implements IUnbakedGeometry<BastonModel> {
+    // La propiedad va de 0 a 1 como "pull" del arco: NORMAL = 0, ARCO = 0.5, LANZADOR = 1
+    public static final ResourceLocation MODO = ResourceLocation.fromNamespaceAndPath(bastones.MOD_ID, "modo");
+    private static final int ULTIMO_MODO = BastonModo.values().length - 1;
+    public static final ClampedItemPropertyFunction MODO_FUNCION =
+            (stack, level, entity, seed) -> (float) BastonModo.of(stack).ordinal() / ULTIMO_MODO;
+
+    private final ElementsModel malla;
+    private final Map<BastonModo, Transformation> modos;
+
+    public BastonModel(ElementsModel malla, Map<BastonModo, Transformation> modos) {
+        this.malla = malla;
+        this.modos = modos;
+    }
+
+    @Override
+    public BakedModel bake(IGeometryBakingContext context, ModelBaker baker, Function<Material, TextureAtlasSprite> spriteGetter,
+                           ModelState modelState, ItemOverrides overrides) {
+        BakedModel base = malla.bake(context, baker, spriteGetter, modelState, ItemOverrides.EMPTY);
+        BastonModo[] values = BastonModo.values();
+        BakedModel[] vistas = new BakedModel[values.length];
+        for (BastonModo modo : values) {
+            Transformation transform = modos.get(modo);
+            vistas[modo.ordinal()] = transform == null || transform.isIdentity() ? base : new Vista(base, transform);
+        }
+        return new Baked(base, new Overrides(vistas));
+    }
+
+    public static final class Loader implements IGeometryLoader<BastonModel> {
+        public static final Loader INSTANCE = new Loader();
+
+        private Loader() {
+        }
+
+        @Override
+        public BastonModel read(JsonObject json, JsonDeserializationContext context) throws JsonParseException {
+            ElementsModel malla = ElementsModel.Loader.INSTANCE.read(json, context);
+            Map<BastonModo, Transformation> modos = new EnumMap<>(BastonModo.class);
+            if (json.has("modos")) {
+                JsonObject jsonModos = json.getAsJsonObject("modos");
+                for (BastonModo modo : BastonModo.values()) {
+                    String name = modo.name().toLowerCase(Locale.ROOT);
+                    if (jsonModos.has(name)) {
+                        modos.put(modo, context.deserialize(jsonModos.get(name), Transformation.class));
+                    }
+                }
+            }
+            return new BastonModel(malla, modos);
+        }
+    }
+
+    // Elige la vista ya horneada segun la propiedad del item; no crea quads ni objetos nuevos
+    private static final class Overrides extends ItemOverrides {
+        private final BakedModel[] vistas;
+
+        Overrides(BakedModel[] vistas) {
+            this.vistas = vistas;
+        }
+
+        @Override
+        public BakedModel resolve(BakedModel model, ItemStack stack, ClientLevel level, LivingEntity entity, int seed) {
+            return vistas[Math.round(MODO_FUNCION.call(stack, level, entity, seed) * ULTIMO_MODO)];
+        }
+    }
+
+    private static final class Baked extends BakedModelWrapper<BakedModel> {
+        private final ItemOverrides overrides;
+
+        Baked(BakedModel base, ItemOverrides overrides) {
+            super(base);
+            this.overrides = overrides;
+        }
+
+        @Override
+        public ItemOverrides getOverrides() {
+            return overrides;
+        }
+    }
+
+    /*
+     * La matriz va despues de la transformacion de display y antes del translate(-0.5) del ItemRenderer,
+     * cuando el modelo ya esta centrado en el origen: las poses de "modos" tienen que usar "origin": "corner"
+     * para girar alrededor del centro del modelo.
+     */
+    private static final class Vista extends BakedModelWrapper<BakedModel> {
+        private final Matrix4f matrix;
+
+        Vista(BakedModel base, Transformation transform) {
+            super(base);
+            this.matrix = transform.getMatrix();
+        }
+
+        @Override
+        public BakedModel applyTransform(ItemDisplayContext context, PoseStack poseStack, boolean applyLeftHandTransform) {
+            originalModel.applyTransform(context, poseStack, applyLeftHandTransform);
+            poseStack.mulPose(matrix);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.sectordepruebas.tutorialmod.command;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.sectordepruebas.tutorialmod.Config;
+import net.sectordepruebas.tutorialmod.bastones;
+import net.sectordepruebas.tutorialmod.fuego.CambiosDeBloques;
+import net.sectordepruebas.tutorialmod.fuego.ProyectilesDeFuego;
+import net.sectordepruebas.tutorialmod.item.BastonModo;
+import net.sectordepruebas.tutorialmod.item.EstadoBaston;
+import net.sectordepruebas.tutorialmod.item.ModDataComponents;
+import net.sectordepruebas.tutorialmod.item.ModItems;
+
+import java.util.Locale;
+
+@Mod.EventBusSubscriber(modid = bastones.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class ModCommands {
+
+    /*
+    * Comandos para operadores: /conexionb proyectiles muestra cuantas bolas de fuego hay vivas
+    * en cada dimension y cuanto tarda su tick; /conexionb bloques muestra la cola de cambios de bloques
+    * y /conexionb modo cambia el modo del baston en la mano
+    */
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    // /conexionb modo <normal|arco|lanzador> cambia el modo del baston que lleva en la mano quien ejecuta el comando
+    private static LiteralArgumentBuilder<CommandSourceStack> modos() {
+        LiteralArgumentBuilder<CommandSourceStack> modo = Commands.literal("modo");
+        for (BastonModo valor : BastonModo.values()) {
+            modo.then(Commands.literal(valor.name().toLowerCase(Locale.ROOT)).executes(context -> {
+                ServerPlayer player = context.getSource().getPlayerOrException();
+                ItemStack stack = player.getMainHandItem();
+                if (!stack.is(ModItems.BASTONDEFUEGO.get())) {
+                    context.getSource().sendFailure(Component.literal("No tienes un baston de fuego en la mano"));
+                    return 0;
+                }
+                long tick = player.level().getGameTime();
+                EstadoBaston estado = stack.getOrDefault(ModDataComponents.ESTADO_BASTON.get(), EstadoBaston.INICIAL).reanclar(tick);
+                stack.set(ModDataComponents.ESTADO_BASTON.get(), estado.conModo(tick, valor));
+                return 1;
+            }));
+        }
+        return modo;
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(bastones.MOD_ID)
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("proyectiles").executes(context -> {
+                    CommandSourceStack source = context.getSource();
+                    if (ProyectilesDeFuego.todos().isEmpty()) {
+                        source.sendSuccess(() -> Component.literal("No hay proyectiles de fuego"), false);
+                    }
+                    for (ProyectilesDeFuego proyectiles : ProyectilesDeFuego.todos()) {
+                        source.sendSuccess(() -> Component.literal(String.format(
+                                "%s: %d/%d vivos (max %d, %d descartados), tick %.1f us (media %.1f us, max %.1f us)",
+                                proyectiles.level().dimension().location(), proyectiles.vivos(), Config.get().maxFireBolts(),
+                                proyectiles.maxVivos(), proyectiles.descartados(), proyectiles.ultimoTickNanos() / 1000.0,
+                                proyectiles.mediaTickNanos() / 1000.0, proyectiles.maxTickNanos() / 1000.0)), false);
+                    }
+                    return ProyectilesDeFuego.todos().size();
+                }))
+                .then(Commands.literal("bloques").executes(context -> {
+                    CommandSourceStack source = context.getSource();
+                    int pendientes = 0;
+                    for (CambiosDeBloques cambios : CambiosDeBloques.todos()) {
+                        pendientes += cambios.bloquesPendientes();
+                        source.sendSuccess(() -> Component.literal(String.format(
+                                "%s: %d bloques en %d secciones pendientes, %d aplicados (%d paquetes, %d descartados), tick %.1f us (media %.1f us, max %.1f us, presupuesto %d us)",
+                                cambios.level().dimension().location(), cambios.bloquesPendientes(), cambios.seccionesPendientes(),
+                                cambios.aplicados(), cambios.paquetes(), cambios.descartados(), cambios.ultimoTickNanos() / 1000.0,
+                                cambios.mediaTickNanos() / 1000.0, cambios.maxTickNanos() / 1000.0, Config.get().blockUpdateBudgetMicros())), false);
+                    }
+                    return pendientes;
+                }))
+                .then(modos()));
+    }
+}
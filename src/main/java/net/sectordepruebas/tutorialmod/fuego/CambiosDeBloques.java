@@ -0,0 +1,357 @@
+package net.sectordepruebas.tutorialmod.fuego;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.ThreadedLevelLightEngine;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseFireBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LightEngine;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.sectordepruebas.tutorialmod.Config;
+import net.sectordepruebas.tutorialmod.bastones;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Cola de cambios de bloques de area (fuego del baston, transformaciones) de un ServerLevel.
+ * Los cambios se agrupan por seccion de chunk y cada seccion se escribe de una vez directamente en su paleta,
+ * con un solo paquete de seccion para los jugadores que la ven. Los vecinos y la luz se avisan despues de escribir
+ * la seccion entera, y solo por las posiciones que de verdad cambiaron.
+ * Cada tick se vacian secciones hasta gastar el blockUpdateBudgetMicros de la config.
+ */
+@Mod.EventBusSubscriber(modid = bastones.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class CambiosDeBloques {
+    private static final Map<ResourceKey<Level>, CambiosDeBloques> POR_NIVEL = new HashMap<>();
+    private static final Direction[] DIRECCIONES = Direction.values();
+    // Los flags que setBlock usa para las formas de los vecinos cuando le llega UPDATE_ALL
+    private static final int FLAGS_FORMA = Block.UPDATE_ALL & ~(Block.UPDATE_NEIGHBORS | Block.UPDATE_SUPPRESS_DROPS);
+    private static final int RECURSION_FORMA = 511;
+
+    private final ServerLevel level;
+    // Seccion -> (posicion local -> estado nuevo); si una posicion se pide dos veces gana el ultimo estado
+    private final Long2ObjectLinkedOpenHashMap<Short2ObjectLinkedOpenHashMap<BlockState>> pendientes = new Long2ObjectLinkedOpenHashMap<>();
+    private final List<Short2ObjectLinkedOpenHashMap<BlockState>> libres = new ArrayList<>();
+    private final ShortArrayList cambiadas = new ShortArrayList();
+    private final List<BlockState> anteriores = new ArrayList<>();
+    private final List<BlockPos> conBloqueEntidad = new ArrayList<>();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private final BlockPos.MutableBlockPos vecino = new BlockPos.MutableBlockPos();
+    private int bloquesPendientes;
+
+    private long ultimoTickNanos;
+    private double mediaTickNanos;
+    private long maxTickNanos;
+    private long aplicados;
+    private long paquetes;
+    private long descartados;
+
+    private CambiosDeBloques(ServerLevel level) {
+        this.level = level;
+    }
+
+    // Se llama desde bastones.onServerStarting, con los niveles ya creados
+    public static void iniciar(MinecraftServer server) {
+        POR_NIVEL.clear();
+        for (ServerLevel level : server.getAllLevels()) {
+            get(level);
+        }
+    }
+
+    public static CambiosDeBloques get(ServerLevel level) {
+        return POR_NIVEL.computeIfAbsent(level.dimension(), key -> new CambiosDeBloques(level));
+    }
+
+    public static Collection<CambiosDeBloques> todos() {
+        return POR_NIVEL.values();
+    }
+
+    public void encolar(BlockPos pos, BlockState estado) {
+        long seccion = SectionPos.asLong(pos);
+        Short2ObjectLinkedOpenHashMap<BlockState> cambios = pendientes.get(seccion);
+        if (cambios == null) {
+            cambios = libre();
+            pendientes.put(seccion, cambios);
+        }
+        if (cambios.put(SectionPos.sectionRelativePos(pos), estado) == null) {
+            bloquesPendientes++;
+        }
+    }
+
+    // Escribe ya, sin pasar por la cola ni el presupuesto: el minado en area tiene que dejar el hueco en el mismo tick
+    public void aplicarAhora(List<BlockPos> posiciones, BlockState estado) {
+        Long2ObjectLinkedOpenHashMap<Short2ObjectLinkedOpenHashMap<BlockState>> lote = new Long2ObjectLinkedOpenHashMap<>();
+        for (BlockPos pos : posiciones) {
+            Short2ObjectLinkedOpenHashMap<BlockState> cambios = lote.get(SectionPos.asLong(pos));
+            if (cambios == null) {
+                cambios = libre();
+                lote.put(SectionPos.asLong(pos), cambios);
+            }
+            cambios.put(SectionPos.sectionRelativePos(pos), estado);
+        }
+        while (!lote.isEmpty()) {
+            long seccion = lote.firstLongKey();
+            Short2ObjectLinkedOpenHashMap<BlockState> cambios = lote.removeFirst();
+            aplicar(seccion, cambios);
+            cambios.clear();
+            libres.add(cambios);
+        }
+    }
+
+    private Short2ObjectLinkedOpenHashMap<BlockState> libre() {
+        return libres.isEmpty() ? new Short2ObjectLinkedOpenHashMap<>() : libres.remove(libres.size() - 1);
+    }
+
+    // Pide fuego en cada hueco dentro del radio donde el fuego pueda sostenerse
+    public int encender(BlockPos centro, int radio) {
+        int radio2 = radio * radio;
+        int encolados = 0;
+        for (int dx = -radio; dx <= radio; dx++) {
+            for (int dy = -radio; dy <= radio; dy++) {
+                for (int dz = -radio; dz <= radio; dz++) {
+                    if (dx * dx + dy * dy + dz * dz > radio2) {
+                        continue;
+                    }
+                    cursor.setWithOffset(centro, dx, dy, dz);
+                    if (!level.isLoaded(cursor) || !level.isEmptyBlock(cursor)) {
+                        continue;
+                    }
+                    BlockState fuego = BaseFireBlock.getState(level, cursor);
+                    if (fuego.canSurvive(level, cursor)) {
+                        encolar(cursor, fuego);
+                        encolados++;
+                    }
+                }
+            }
+        }
+        return encolados;
+    }
+
+    public void tick() {
+        long inicio = System.nanoTime();
+        if (!pendientes.isEmpty()) {
+            long limite = inicio + Config.get().blockUpdateBudgetMicros() * 1000L;
+            // Siempre sale al menos una seccion, asi la cola avanza aunque el presupuesto sea minimo
+            do {
+                long seccion = pendientes.firstLongKey();
+                Short2ObjectLinkedOpenHashMap<BlockState> cambios = pendientes.removeFirst();
+                bloquesPendientes -= cambios.size();
+                aplicar(seccion, cambios);
+                cambios.clear();
+                libres.add(cambios);
+            } while (!pendientes.isEmpty() && System.nanoTime() < limite);
+        }
+        ultimoTickNanos = System.nanoTime() - inicio;
+        mediaTickNanos = mediaTickNanos * 0.95 + ultimoTickNanos * 0.05;
+        maxTickNanos = Math.max(maxTickNanos, ultimoTickNanos);
+    }
+
+    private void aplicar(long clave, Short2ObjectLinkedOpenHashMap<BlockState> cambios) {
+        SectionPos seccionPos = SectionPos.of(clave);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(seccionPos.x(), seccionPos.z());
+        int indice = level.getSectionIndexFromSectionY(seccionPos.y());
+        if (chunk == null || indice < 0 || indice >= chunk.getSectionsCount()) {
+            descartados += cambios.size();
+            return;
+        }
+        LevelChunkSection seccion = chunk.getSection(indice);
+        boolean vaciaAntes = seccion.hasOnlyAir();
+
+        for (ObjectIterator<Short2ObjectMap.Entry<BlockState>> it = cambios.short2ObjectEntrySet().fastIterator(); it.hasNext(); ) {
+            Short2ObjectMap.Entry<BlockState> entry = it.next();
+            short local = entry.getShortKey();
+            int x = SectionPos.sectionRelativeX(local), y = SectionPos.sectionRelativeY(local), z = SectionPos.sectionRelativeZ(local);
+            BlockState nuevo = entry.getValue();
+            BlockState viejo = seccion.getBlockState(x, y, z);
+            // El fuego solo entra en huecos que sigan vacios cuando le llega el turno
+            if (viejo == nuevo || nuevo.getBlock() instanceof BaseFireBlock && !viejo.isAir()) {
+                continue;
+            }
+            if (viejo.hasBlockEntity() || nuevo.hasBlockEntity()) {
+                conBloqueEntidad.add(seccionPos.relativeToBlockPos(local));
+                continue;
+            }
+            seccion.setBlockState(x, y, z, nuevo, false);
+            int worldY = seccionPos.minBlockY() + y;
+            for (Map.Entry<Heightmap.Types, Heightmap> heightmap : chunk.getHeightmaps()) {
+                heightmap.getValue().update(x, worldY, z, nuevo);
+            }
+            cambiadas.add(local);
+            anteriores.add(viejo);
+        }
+
+        if (!cambiadas.isEmpty()) {
+            chunk.setUnsaved(true);
+            luz(seccionPos, seccion, chunk, vaciaAntes);
+            enviar(seccionPos, seccion, chunk);
+            avisar(seccionPos, cambios);
+            aplicados += cambiadas.size();
+        }
+        // Los bloques con entidad de bloque van por el camino normal del nivel
+        for (BlockPos pos : conBloqueEntidad) {
+            level.setBlock(pos, cambios.get(SectionPos.sectionRelativePos(pos)), Block.UPDATE_ALL);
+            aplicados++;
+        }
+        cambiadas.clear();
+        anteriores.clear();
+        conBloqueEntidad.clear();
+    }
+
+    // Como LevelChunk.setBlockState: primero las fuentes de luz del cielo de la columna y despues checkBlock
+    private void luz(SectionPos seccionPos, LevelChunkSection seccion, LevelChunk chunk, boolean vaciaAntes) {
+        ThreadedLevelLightEngine luz = level.getChunkSource().getLightEngine();
+        boolean vaciaAhora = seccion.hasOnlyAir();
+        if (vaciaAntes != vaciaAhora) {
+            luz.updateSectionStatus(seccionPos, vaciaAhora);
+        }
+        for (int i = 0; i < cambiadas.size(); i++) {
+            short local = cambiadas.getShort(i);
+            BlockPos pos = seccionPos.relativeToBlockPos(local);
+            int x = SectionPos.sectionRelativeX(local), z = SectionPos.sectionRelativeZ(local);
+            BlockState nuevo = seccion.getBlockState(x, SectionPos.sectionRelativeY(local), z);
+            if (LightEngine.hasDifferentLightProperties(level, pos, anteriores.get(i), nuevo)) {
+                chunk.getSkyLightSources().update(chunk, x, pos.getY(), z);
+                luz.checkBlock(pos);
+            }
+        }
+    }
+
+    // Un solo paquete por seccion para todos los jugadores que tienen el chunk cargado
+    private void enviar(SectionPos seccionPos, LevelChunkSection seccion, LevelChunk chunk) {
+        List<ServerPlayer> jugadores = level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false);
+        if (jugadores.isEmpty()) {
+            return;
+        }
+        ClientboundSectionBlocksUpdatePacket paquete =
+                new ClientboundSectionBlocksUpdatePacket(seccionPos, new ShortOpenHashSet(cambiadas), seccion);
+        for (ServerPlayer jugador : jugadores) {
+            jugador.connection.send(paquete);
+        }
+        paquetes++;
+    }
+
+    /*
+     * Se hace despues de escribir toda la seccion: onRemove/onPlace de cada bloque (el fuego programa aqui su tick)
+     * y luego, como setBlock, neighborChanged y actualizacion de forma de los vecinos que no estaban en el mismo lote
+     * (los de dentro ya tienen su estado final). Sin las formas se quedaban flotando antorchas, escaleras o arena.
+     */
+    private void avisar(SectionPos seccionPos, Short2ObjectLinkedOpenHashMap<BlockState> cambios) {
+        for (int i = 0; i < cambiadas.size(); i++) {
+            short local = cambiadas.getShort(i);
+            cursor.set(seccionPos.relativeToBlockPos(local));
+            BlockState viejo = anteriores.get(i);
+            BlockState nuevo = cambios.get(local);
+            viejo.onRemove(level, cursor, nuevo, false);
+            level.onBlockStateChange(cursor, viejo, nuevo);
+            nuevo.onPlace(level, cursor, viejo, false);
+        }
+        for (int i = 0; i < cambiadas.size(); i++) {
+            short local = cambiadas.getShort(i);
+            cursor.set(seccionPos.relativeToBlockPos(local));
+            BlockState viejo = anteriores.get(i);
+            BlockState nuevo = cambios.get(local);
+            for (Direction direccion : DIRECCIONES) {
+                if (!enLote(seccionPos, cambios, direccion)) {
+                    level.neighborChanged(vecino, nuevo.getBlock(), cursor);
+                }
+            }
+            viejo.updateIndirectNeighbourShapes(level, cursor, FLAGS_FORMA, RECURSION_FORMA);
+            for (Direction direccion : DIRECCIONES) {
+                if (!enLote(seccionPos, cambios, direccion)) {
+                    BlockState estadoVecino = level.getBlockState(vecino);
+                    BlockState forma = estadoVecino.updateShape(direccion.getOpposite(), nuevo, level, vecino, cursor);
+                    Block.updateOrDestroy(estadoVecino, forma, level, vecino, FLAGS_FORMA, RECURSION_FORMA);
+                }
+            }
+            nuevo.updateIndirectNeighbourShapes(level, cursor, FLAGS_FORMA, RECURSION_FORMA);
+        }
+    }
+
+    // Deja en vecino la posicion de al lado de cursor y dice si tambien cambio en esta seccion
+    private boolean enLote(SectionPos seccionPos, Short2ObjectLinkedOpenHashMap<BlockState> cambios, Direction direccion) {
+        vecino.setWithOffset(cursor, direccion);
+        return SectionPos.asLong(vecino) == seccionPos.asLong() && cambios.containsKey(SectionPos.sectionRelativePos(vecino));
+    }
+
+    public ServerLevel level() {
+        return level;
+    }
+
+    public int seccionesPendientes() {
+        return pendientes.size();
+    }
+
+    public int bloquesPendientes() {
+        return bloquesPendientes;
+    }
+
+    public long aplicados() {
+        return aplicados;
+    }
+
+    public long paquetes() {
+        return paquetes;
+    }
+
+    public long descartados() {
+        return descartados;
+    }
+
+    public long ultimoTickNanos() {
+        return ultimoTickNanos;
+    }
+
+    public double mediaTickNanos() {
+        return mediaTickNanos;
+    }
+
+    public long maxTickNanos() {
+        return maxTickNanos;
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent.Post event) {
+        if (event.level instanceof ServerLevel serverLevel) {
+            CambiosDeBloques cambios = POR_NIVEL.get(serverLevel.dimension());
+            if (cambios != null) {
+                cambios.tick();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            POR_NIVEL.remove(serverLevel.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        POR_NIVEL.clear();
+    }
+}
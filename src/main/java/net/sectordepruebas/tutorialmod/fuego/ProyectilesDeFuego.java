@@ -0,0 +1,413 @@
+package net.sectordepruebas.tutorialmod.fuego;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.damagesource.DamageTypes;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.sectordepruebas.tutorialmod.Config;
+import net.sectordepruebas.tutorialmod.bastones;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/*
+ * Proyectiles del baston de fuego de un ServerLevel.
+ * No son entidades: cada bola es un indice en arrays de primitivos y todas avanzan en una sola pasada por tick.
+ * Las entidades que pueden recibir golpes se buscan una vez por tick y por seccion de chunk ocupada,
+ * y se reparten en una tabla hash de celdas de 2 bloques para que cada bola solo mire su celda.
+ * Las particulas de estela tambien van por seccion: un solo sendParticles por seccion ocupada, con tantas
+ * particulas como bolas y repartidas por la caja que ocupan, en vez de un envio a cada jugador por bola.
+ */
+@Mod.EventBusSubscriber(modid = bastones.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class ProyectilesDeFuego {
+    private static final Map<ResourceKey<Level>, ProyectilesDeFuego> POR_NIVEL = new HashMap<>();
+    private static final double RADIO = 0.25;
+    private static final double PASO = 0.5;
+    private static final int CELDA = 1; // log2 del lado de celda de la tabla hash
+    private static final int CAPACIDAD_INICIAL = 64;
+    private static final EntityTypeTest<Entity, Entity> ENTIDADES = EntityTypeTest.forClass(Entity.class);
+    // Lo sube el listener de la config (desde otro hilo); cada nivel recorta en su tick si cambio desde la ultima vez
+    private static volatile int versionConfig;
+
+    static {
+        Config.addListener(config -> versionConfig++);
+    }
+
+    private final ServerLevel level;
+    private int vivos;
+    private double[] x = new double[CAPACIDAD_INICIAL];
+    private double[] y = new double[CAPACIDAD_INICIAL];
+    private double[] z = new double[CAPACIDAD_INICIAL];
+    private double[] vx = new double[CAPACIDAD_INICIAL];
+    private double[] vy = new double[CAPACIDAD_INICIAL];
+    private double[] vz = new double[CAPACIDAD_INICIAL];
+    private int[] edad = new int[CAPACIDAD_INICIAL];
+    private int[] dueno = new int[CAPACIDAD_INICIAL];
+    private float[] danio = new float[CAPACIDAD_INICIAL];
+
+    private final LongOpenHashSet secciones = new LongOpenHashSet();
+    private final IntOpenHashSet vistos = new IntOpenHashSet();
+    private final List<Entity> candidatos = new ArrayList<>();
+    private final Long2ObjectOpenHashMap<IntArrayList> celdas = new Long2ObjectOpenHashMap<>();
+    private final List<IntArrayList> libres = new ArrayList<>();
+    private final Long2ObjectOpenHashMap<Estela> estelas = new Long2ObjectOpenHashMap<>();
+    private final List<Estela> estelasLibres = new ArrayList<>();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    // Las cajas de secciones vecinas se solapan; cada entidad entra una sola vez
+    private final Predicate<Entity> golpeable = entity -> entity.canBeHitByProjectile() && vistos.add(entity.getId());
+
+    private long ultimoTickNanos;
+    private double mediaTickNanos;
+    private long maxTickNanos;
+    private int maxVivos;
+    private long descartados;
+    private int versionVista;
+
+    private ProyectilesDeFuego(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static ProyectilesDeFuego get(ServerLevel level) {
+        return POR_NIVEL.computeIfAbsent(level.dimension(), key -> new ProyectilesDeFuego(level));
+    }
+
+    public static Collection<ProyectilesDeFuego> todos() {
+        return POR_NIVEL.values();
+    }
+
+    public boolean disparar(LivingEntity owner) {
+        Config.Snapshot config = Config.get();
+        if (vivos >= config.maxFireBolts()) {
+            descartados++;
+            return false;
+        }
+        if (vivos == x.length) {
+            crecer(Math.min(x.length * 2, Math.max(config.maxFireBolts(), CAPACIDAD_INICIAL)));
+        }
+        Vec3 mirada = owner.getLookAngle();
+        int i = vivos++;
+        x[i] = owner.getX() + mirada.x;
+        y[i] = owner.getEyeY() - 0.1 + mirada.y;
+        z[i] = owner.getZ() + mirada.z;
+        vx[i] = mirada.x * config.fireBoltSpeed();
+        vy[i] = mirada.y * config.fireBoltSpeed();
+        vz[i] = mirada.z * config.fireBoltSpeed();
+        edad[i] = 0;
+        dueno[i] = owner.getId();
+        danio[i] = config.fireBoltDamage();
+        maxVivos = Math.max(maxVivos, vivos);
+        return true;
+    }
+
+    private void crecer(int capacidad) {
+        x = Arrays.copyOf(x, capacidad);
+        y = Arrays.copyOf(y, capacidad);
+        z = Arrays.copyOf(z, capacidad);
+        vx = Arrays.copyOf(vx, capacidad);
+        vy = Arrays.copyOf(vy, capacidad);
+        vz = Arrays.copyOf(vz, capacidad);
+        edad = Arrays.copyOf(edad, capacidad);
+        dueno = Arrays.copyOf(dueno, capacidad);
+        danio = Arrays.copyOf(danio, capacidad);
+    }
+
+    public void tick() {
+        long inicio = System.nanoTime();
+        int version = versionConfig;
+        if (version != versionVista) {
+            versionVista = version;
+            recortar(Config.get().maxFireBolts());
+        }
+        if (vivos > 0) {
+            prepararCandidatos();
+            avanzar();
+            limpiarCeldas();
+        }
+        ultimoTickNanos = System.nanoTime() - inicio;
+        mediaTickNanos = mediaTickNanos * 0.95 + ultimoTickNanos * 0.05;
+        maxTickNanos = Math.max(maxTickNanos, ultimoTickNanos);
+    }
+
+    // Apaga las bolas mas nuevas que pasen del tope y devuelve la memoria de los arrays
+    private void recortar(int tope) {
+        vivos = Math.min(vivos, tope);
+        int capacidad = Math.max(tope, CAPACIDAD_INICIAL);
+        if (x.length > capacidad) {
+            crecer(capacidad);
+        }
+    }
+
+    private void prepararCandidatos() {
+        // Todas las secciones de la caja entre el inicio y el final del paso: en diagonal el segmento
+        // puede cruzar secciones que no son ni la de salida ni la de llegada
+        for (int i = 0; i < vivos; i++) {
+            int sx0 = SectionPos.posToSectionCoord(x[i]), sx1 = SectionPos.posToSectionCoord(x[i] + vx[i]);
+            int sy0 = SectionPos.posToSectionCoord(y[i]), sy1 = SectionPos.posToSectionCoord(y[i] + vy[i]);
+            int sz0 = SectionPos.posToSectionCoord(z[i]), sz1 = SectionPos.posToSectionCoord(z[i] + vz[i]);
+            for (int sx = Math.min(sx0, sx1); sx <= Math.max(sx0, sx1); sx++) {
+                for (int sy = Math.min(sy0, sy1); sy <= Math.max(sy0, sy1); sy++) {
+                    for (int sz = Math.min(sz0, sz1); sz <= Math.max(sz0, sz1); sz++) {
+                        secciones.add(SectionPos.asLong(sx, sy, sz));
+                    }
+                }
+            }
+        }
+        for (LongIterator it = secciones.iterator(); it.hasNext(); ) {
+            long seccion = it.nextLong();
+            double minX = SectionPos.sectionToBlockCoord(SectionPos.x(seccion));
+            double minY = SectionPos.sectionToBlockCoord(SectionPos.y(seccion));
+            double minZ = SectionPos.sectionToBlockCoord(SectionPos.z(seccion));
+            AABB caja = new AABB(minX - 2, minY - 2, minZ - 2, minX + 18, minY + 18, minZ + 18);
+            level.getEntities(ENTIDADES, caja, golpeable, candidatos);
+        }
+        for (int e = 0; e < candidatos.size(); e++) {
+            AABB caja = candidatos.get(e).getBoundingBox();
+            int x0 = celda(caja.minX - RADIO), x1 = celda(caja.maxX + RADIO);
+            int y0 = celda(caja.minY - RADIO), y1 = celda(caja.maxY + RADIO);
+            int z0 = celda(caja.minZ - RADIO), z1 = celda(caja.maxZ + RADIO);
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int cy = y0; cy <= y1; cy++) {
+                    for (int cz = z0; cz <= z1; cz++) {
+                        IntArrayList lista = celdas.get(BlockPos.asLong(cx, cy, cz));
+                        if (lista == null) {
+                            lista = libres.isEmpty() ? new IntArrayList() : libres.remove(libres.size() - 1);
+                            celdas.put(BlockPos.asLong(cx, cy, cz), lista);
+                        }
+                        lista.add(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void limpiarCeldas() {
+        for (IntArrayList lista : celdas.values()) {
+            lista.clear();
+            libres.add(lista);
+        }
+        celdas.clear();
+        candidatos.clear();
+        vistos.clear();
+        secciones.clear();
+    }
+
+    private void avanzar() {
+        int vida = Config.get().fireBoltLifetime();
+        int i = 0;
+        while (i < vivos) {
+            if (++edad[i] > vida || !mover(i)) {
+                quitar(i);
+            } else {
+                if ((edad[i] & 1) == 0) {
+                    long seccion = SectionPos.asLong(SectionPos.posToSectionCoord(x[i]),
+                            SectionPos.posToSectionCoord(y[i]), SectionPos.posToSectionCoord(z[i]));
+                    Estela estela = estelas.get(seccion);
+                    if (estela == null) {
+                        estela = estelasLibres.isEmpty() ? new Estela() : estelasLibres.remove(estelasLibres.size() - 1);
+                        estelas.put(seccion, estela);
+                    }
+                    estela.agregar(x[i], y[i], z[i]);
+                }
+                i++;
+            }
+        }
+        for (Estela estela : estelas.values()) {
+            estela.enviar(level);
+            estelasLibres.add(estela);
+        }
+        estelas.clear();
+    }
+
+    // Avanza la bola en pasos de medio bloque; devuelve false si choco con algo o salio de los chunks cargados
+    private boolean mover(int i) {
+        double velocidad = Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i] + vz[i] * vz[i]);
+        int pasos = Math.max(1, (int) Math.ceil(velocidad / PASO));
+        double dx = vx[i] / pasos, dy = vy[i] / pasos, dz = vz[i] / pasos;
+        for (int paso = 0; paso < pasos; paso++) {
+            double px = x[i] + dx, py = y[i] + dy, pz = z[i] + dz;
+            Entity golpeado = buscarEntidad(i, px, py, pz);
+            if (golpeado != null) {
+                golpear(i, golpeado);
+                return false;
+            }
+            cursor.set(px, py, pz);
+            if (!level.isLoaded(cursor)) {
+                return false;
+            }
+            BlockState state = level.getBlockState(cursor);
+            if (!state.isAir() && !state.getCollisionShape(level, cursor).isEmpty()) {
+                encender(x[i], y[i], z[i]);
+                return false;
+            }
+            x[i] = px;
+            y[i] = py;
+            z[i] = pz;
+        }
+        return true;
+    }
+
+    private Entity buscarEntidad(int i, double px, double py, double pz) {
+        IntArrayList lista = celdas.get(BlockPos.asLong(celda(px), celda(py), celda(pz)));
+        if (lista == null) {
+            return null;
+        }
+        for (int n = 0; n < lista.size(); n++) {
+            Entity entity = candidatos.get(lista.getInt(n));
+            if (entity.getId() == dueno[i] || !entity.isAlive()) {
+                continue;
+            }
+            AABB caja = entity.getBoundingBox();
+            if (px >= caja.minX - RADIO && px <= caja.maxX + RADIO
+                    && py >= caja.minY - RADIO && py <= caja.maxY + RADIO
+                    && pz >= caja.minZ - RADIO && pz <= caja.maxZ + RADIO) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private void golpear(int i, Entity entity) {
+        Entity owner = level.getEntity(dueno[i]);
+        DamageSource source = new DamageSource(level.registryAccess().registryOrThrow(Registries.DAMAGE_TYPE)
+                .getHolderOrThrow(DamageTypes.FIREBALL), owner, owner);
+        // Como SmallFireball: si el golpe no entra (pvp apagado, invulnerable, creativo...) tampoco se queda ardiendo
+        int fuegoAntes = entity.getRemainingFireTicks();
+        if (!entity.fireImmune()) {
+            entity.igniteForSeconds(5.0F);
+        }
+        if (!entity.hurt(source, danio[i])) {
+            entity.setRemainingFireTicks(fuegoAntes);
+        }
+    }
+
+    private void encender(double px, double py, double pz) {
+        if (!level.getGameRules().getBoolean(GameRules.RULE_MOBGRIEFING)) {
+            return;
+        }
+        // El fuego de area no se pone aqui: lo escribe CambiosDeBloques por secciones y con presupuesto
+        CambiosDeBloques.get(level).encender(BlockPos.containing(px, py, pz), Config.get().fireIgniteRadius());
+    }
+
+    // La ultima bola ocupa el hueco, asi los arrays siguen densos
+    private void quitar(int i) {
+        int ultimo = --vivos;
+        x[i] = x[ultimo];
+        y[i] = y[ultimo];
+        z[i] = z[ultimo];
+        vx[i] = vx[ultimo];
+        vy[i] = vy[ultimo];
+        vz[i] = vz[ultimo];
+        edad[i] = edad[ultimo];
+        dueno[i] = dueno[ultimo];
+        danio[i] = danio[ultimo];
+    }
+
+    // Caja y cantidad de las bolas de una seccion que sueltan particula este tick
+    private static final class Estela {
+        private double minX, minY, minZ, maxX, maxY, maxZ;
+        private int bolas;
+
+        void agregar(double px, double py, double pz) {
+            if (bolas++ == 0) {
+                minX = maxX = px;
+                minY = maxY = py;
+                minZ = maxZ = pz;
+            } else {
+                minX = Math.min(minX, px);
+                minY = Math.min(minY, py);
+                minZ = Math.min(minZ, pz);
+                maxX = Math.max(maxX, px);
+                maxY = Math.max(maxY, py);
+                maxZ = Math.max(maxZ, pz);
+            }
+        }
+
+        // El desvio es un cuarto del lado de la caja, asi casi todas caen dentro; con una bola sale en su sitio
+        void enviar(ServerLevel level) {
+            level.sendParticles(ParticleTypes.FLAME, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, bolas,
+                    (maxX - minX) / 4, (maxY - minY) / 4, (maxZ - minZ) / 4, 0.0);
+            bolas = 0;
+        }
+    }
+
+    private static int celda(double coordenada) {
+        return (int) Math.floor(coordenada) >> CELDA;
+    }
+
+    public ServerLevel level() {
+        return level;
+    }
+
+    public int vivos() {
+        return vivos;
+    }
+
+    public int maxVivos() {
+        return maxVivos;
+    }
+
+    public long descartados() {
+        return descartados;
+    }
+
+    public long ultimoTickNanos() {
+        return ultimoTickNanos;
+    }
+
+    public double mediaTickNanos() {
+        return mediaTickNanos;
+    }
+
+    public long maxTickNanos() {
+        return maxTickNanos;
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent.Post event) {
+        if (event.level instanceof ServerLevel serverLevel) {
+            ProyectilesDeFuego proyectiles = POR_NIVEL.get(serverLevel.dimension());
+            if (proyectiles != null) {
+                proyectiles.tick();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            POR_NIVEL.remove(serverLevel.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        POR_NIVEL.clear();
+    }
+}
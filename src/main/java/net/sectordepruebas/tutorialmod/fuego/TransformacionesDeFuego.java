@@ -0,0 +1,159 @@
+package net.sectordepruebas.tutorialmod.fuego;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.AbstractCookingRecipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.SingleRecipeInput;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.sectordepruebas.tutorialmod.bastones;
+import net.sectordepruebas.tutorialmod.item.util.ModTags;
+import net.sectordepruebas.tutorialmod.item.util.PilasAgrupadas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Convierte con el baston los items tirados en el suelo que estan en el tag conexionb:transformable_items.
+ * La tabla Item -> resultado se arma una sola vez despues de cada recarga de tags y recetas, en un array
+ * indexado por el id numerico del item, asi convertir una pila es una lectura del array.
+ */
+@Mod.EventBusSubscriber(modid = bastones.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class TransformacionesDeFuego {
+    private static final EntityTypeTest<Entity, ItemEntity> ITEMS = EntityTypeTest.forClass(ItemEntity.class);
+    private static final List<RecipeType<? extends AbstractCookingRecipe>> TIPOS =
+            List.of(RecipeType.SMELTING, RecipeType.BLASTING, RecipeType.SMOKING, RecipeType.CAMPFIRE_COOKING);
+
+    private static volatile ItemStack[] tabla;
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            tabla = null;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        tabla = null;
+    }
+
+    // Se arma con el primer uso despues de la recarga, cuando ya hay recetas y tags enlazados
+    private static ItemStack[] tabla(ServerLevel level) {
+        ItemStack[] actual = tabla;
+        if (actual == null) {
+            actual = construir(level);
+            tabla = actual;
+        }
+        return actual;
+    }
+
+    private static ItemStack[] construir(ServerLevel level) {
+        ItemStack[] resultados = new ItemStack[BuiltInRegistries.ITEM.size()];
+        RecipeManager recetas = level.getRecipeManager();
+        int convertibles = 0;
+        for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(ModTags.Blocks.Items.TRANSFORMABLE_ITEMS)) {
+            SingleRecipeInput entrada = new SingleRecipeInput(new ItemStack(holder));
+            for (RecipeType<? extends AbstractCookingRecipe> tipo : TIPOS) {
+                Optional<? extends RecipeHolder<? extends AbstractCookingRecipe>> receta = recetas.getRecipeFor(tipo, entrada, level);
+                if (receta.isPresent()) {
+                    ItemStack resultado = receta.get().value().getResultItem(level.registryAccess());
+                    if (!resultado.isEmpty()) {
+                        resultados[BuiltInRegistries.ITEM.getId(holder.value())] = resultado.copy();
+                        convertibles++;
+                    }
+                    break;
+                }
+            }
+        }
+        bastones.LOGGER.debug("Tabla de transformaciones de fuego: {} items convertibles", convertibles);
+        return resultados;
+    }
+
+    // Lectura de la tabla que hace convertir por cada item; null si el item no se transforma
+    public static ItemStack resultado(ItemStack[] resultados, Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < resultados.length ? resultados[id] : null;
+    }
+
+    /*
+     * Convierte todos los items transformables dentro del radio.
+     * Se recorren por seccion de chunk y las salidas iguales de cada seccion salen juntas en el menor numero de entidades.
+     * Devuelve cuantos items se convirtieron.
+     */
+    public static int convertir(ServerLevel level, Vec3 centro, double radio) {
+        ItemStack[] resultados = tabla(level);
+        double radio2 = radio * radio;
+        List<ItemEntity> encontrados = new ArrayList<>();
+        level.getEntities(ITEMS, new AABB(centro, centro).inflate(radio), entity -> entity.isAlive()
+                && resultado(resultados, entity.getItem().getItem()) != null
+                && entity.distanceToSqr(centro) <= radio2, encontrados);
+        if (encontrados.isEmpty()) {
+            return 0;
+        }
+        encontrados.sort(Comparator.comparingLong(entity -> SectionPos.asLong(entity.blockPosition())));
+
+        Salidas salidas = new Salidas();
+        long seccion = SectionPos.asLong(encontrados.get(0).blockPosition());
+        int convertidos = 0;
+        for (ItemEntity entity : encontrados) {
+            long actual = SectionPos.asLong(entity.blockPosition());
+            if (actual != seccion) {
+                salidas.soltar(level);
+                seccion = actual;
+            }
+            ItemStack stack = entity.getItem();
+            salidas.agregar(resultado(resultados, stack.getItem()), stack.getCount(), entity.position());
+            convertidos += stack.getCount();
+            entity.discard();
+        }
+        salidas.soltar(level);
+
+        level.sendParticles(ParticleTypes.FLAME, centro.x, centro.y, centro.z, 20, radio / 2, 0.5, radio / 2, 0.02);
+        level.playSound(null, centro.x, centro.y, centro.z, SoundEvents.FIRECHARGE_USE, SoundSource.PLAYERS, 0.8F, 0.8F);
+        return convertidos;
+    }
+
+    // Salidas acumuladas de una seccion y el centro de los items convertidos
+    private static final class Salidas {
+        private final PilasAgrupadas pilas = new PilasAgrupadas();
+        private double x, y, z;
+        private int entidades;
+
+        void agregar(ItemStack resultado, int count, Vec3 posicion) {
+            pilas.agregar(resultado, (long) resultado.getCount() * count);
+            x += posicion.x;
+            y += posicion.y;
+            z += posicion.z;
+            entidades++;
+        }
+
+        void soltar(ServerLevel level) {
+            if (entidades == 0) {
+                return;
+            }
+            pilas.soltar(level, x / entidades, y / entidades, z / entidades);
+            x = y = z = 0.0;
+            entidades = 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package net.sectordepruebas.tutorialmod.item;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResultHolder;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.SwordItem;
+import net.minecraft.world.item.Tier;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.sectordepruebas.tutorialmod.Config;
+import net.sectordepruebas.tutorialmod.fuego.ProyectilesDeFuego;
+import net.sectordepruebas.tutorialmod.fuego.TransformacionesDeFuego;
+public class BastonDeFuegoItem extends SwordItem {
+
+    /*
+    * Golpea como una espada y con click derecho lanza una bola de fuego
+    * Las bolas no son entidades, las mueve ProyectilesDeFuego del nivel
+    * Agachado, el click derecho convierte los items transformables tirados alrededor
+    * Pica los bloques del tier zomer en area o en veta, ver MineriaEnArea
+    */
+    public BastonDeFuegoItem(Tier tier, Properties properties) {
+        super(tier, properties);
+    }
+
+    /*
+    * Cliente y servidor hacen la misma cuenta con EstadoBaston: el cliente predice el disparo
+    * y el stack que manda el servidor despues trae el mismo valor
+    */
+    @Override
+    public InteractionResultHolder<ItemStack> use(Level level, Player player, InteractionHand hand) {
+        ItemStack stack = player.getItemInHand(hand);
+        Config.Snapshot config = Config.get();
+        long tick = level.getGameTime();
+        EstadoBaston estado = estado(stack, level, tick);
+        if (estado.enfriando(tick)) {
+            return rechazar(player, hand, stack);
+        }
+        if (player.isShiftKeyDown()) {
+            if (level instanceof ServerLevel serverLevel
+                    && TransformacionesDeFuego.convertir(serverLevel, player.position(), config.transformRadius()) > 0) {
+                stack.hurtAndBreak(1, player, LivingEntity.getSlotForHand(hand));
+            }
+            stack.set(ModDataComponents.ESTADO_BASTON.get(), estado.enfriar(tick, config.fireBoltCooldown()));
+            player.getCooldowns().addCooldown(this, config.fireBoltCooldown());
+            return InteractionResultHolder.sidedSuccess(stack, level.isClientSide());
+        }
+        if (!estado.puedeDisparar(tick)) {
+            return rechazar(player, hand, stack);
+        }
+        if (level instanceof ServerLevel serverLevel) {
+            if (!ProyectilesDeFuego.get(serverLevel).disparar(player)) {
+                return rechazar(player, hand, stack);
+            }
+            if (estado.cobraDesgaste()) {
+                stack.hurtAndBreak(EstadoBaston.DISPAROS_POR_DESGASTE, player, LivingEntity.getSlotForHand(hand));
+            }
+        }
+        stack.set(ModDataComponents.ESTADO_BASTON.get(), estado.disparar(tick, config.fireBoltCooldown()));
+        // Solo para el dibujo de la barra rapida; el enfriamiento de verdad va en el componente
+        player.getCooldowns().addCooldown(this, config.fireBoltCooldown());
+        level.playSound(null, player.getX(), player.getY(), player.getZ(), SoundEvents.FIRECHARGE_USE, SoundSource.PLAYERS, 0.5F, 1.0F);
+        return InteractionResultHolder.sidedSuccess(stack, level.isClientSide());
+    }
+
+    // En el servidor un ancla que no vale se corrige y se escribe, asi el cliente recibe la nueva
+    private static EstadoBaston estado(ItemStack stack, Level level, long tick) {
+        EstadoBaston estado = stack.getOrDefault(ModDataComponents.ESTADO_BASTON.get(), EstadoBaston.INICIAL);
+        if (!level.isClientSide()) {
+            EstadoBaston anclado = estado.reanclar(tick);
+            if (anclado != estado) {
+                stack.set(ModDataComponents.ESTADO_BASTON.get(), anclado);
+            }
+            return anclado;
+        }
+        return estado;
+    }
+
+    /*
+     * El cliente pudo haber predicho el disparo y escrito su estado; si el servidor lo rechaza su stack no cambia
+     * y no se reenviaria solo, asi que se manda el slot para que el cliente vuelva al valor del servidor
+     */
+    private static InteractionResultHolder<ItemStack> rechazar(Player player, InteractionHand hand, ItemStack stack) {
+        if (player instanceof ServerPlayer serverPlayer) {
+            int slot = hand == InteractionHand.MAIN_HAND ? player.getInventory().selected : Inventory.SLOT_OFFHAND;
+            serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(-2, 0, slot, stack));
+        }
+        return InteractionResultHolder.fail(stack);
+    }
+
+    // El agua apaga el baston: es lo unico que el cliente no predice, asi que el servidor corrige si se desvia
+    @Override
+    public void inventoryTick(ItemStack stack, Level level, Entity entity, int slot, boolean selected) {
+        if (level.isClientSide() || !stack.has(ModDataComponents.ESTADO_BASTON.get())) {
+            return;
+        }
+        long tick = level.getGameTime();
+        EstadoBaston estado = estado(stack, level, tick);
+        if (estado.calor(tick) > EstadoBaston.TOLERANCIA_CALOR && entity.isInWaterRainOrBubble()) {
+            stack.set(ModDataComponents.ESTADO_BASTON.get(), estado.conCalor(tick, 0));
+        }
+    }
+
+    @Override
+    public float getDestroySpeed(ItemStack stack, BlockState state) {
+        return MineriaEnArea.minable(state) ? getTier().getSpeed() : super.getDestroySpeed(stack, state);
+    }
+
+    @Override
+    public boolean isCorrectToolForDrops(ItemStack stack, BlockState state) {
+        return MineriaEnArea.minable(state) || super.isCorrectToolForDrops(stack, state);
+    }
+
+    // El resto del lote se cobra de una vez, un punto de durabilidad por bloque extra
+    @Override
+    public boolean mineBlock(ItemStack stack, Level level, BlockState state, BlockPos pos, LivingEntity miner) {
+        boolean usado = super.mineBlock(stack, level, state, pos, miner);
+        if (level instanceof ServerLevel serverLevel && miner instanceof ServerPlayer player) {
+            int rotos = MineriaEnArea.minar(serverLevel, player, stack, pos, state);
+            if (rotos > 0) {
+                stack.hurtAndBreak(rotos, player, EquipmentSlot.MAINHAND);
+            }
+        }
+        return usado;
+    }
+}
@@ -0,0 +1,29 @@
+package net.sectordepruebas.tutorialmod.item;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.component.CustomModelData;
+public enum BastonModo {
+    /*
+    * Modos del baston de fuego. El orden es el valor de la propiedad "conexionb:modo" del modelo
+    * El modo va en el componente estado_baston; los stacks viejos sin componente siguen usando
+    * CustomModelData: 1 = como arco, 2 = como lanzador, cualquier otro valor = baston normal
+    */
+    NORMAL,
+    ARCO,
+    LANZADOR;
+
+    private static final BastonModo[] VALUES = values();
+
+    public static BastonModo of(ItemStack stack) {
+        EstadoBaston estado = stack.get(ModDataComponents.ESTADO_BASTON.get());
+        if (estado != null) {
+            return estado.modo();
+        }
+        CustomModelData data = stack.get(DataComponents.CUSTOM_MODEL_DATA);
+        return data == null ? NORMAL : byId(data.value());
+    }
+
+    public static BastonModo byId(int id) {
+        return id >= 0 && id < VALUES.length ? VALUES[id] : NORMAL;
+    }
+}
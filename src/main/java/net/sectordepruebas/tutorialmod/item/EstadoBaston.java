@@ -0,0 +1,129 @@
+package net.sectordepruebas.tutorialmod.item;
+
+import com.mojang.serialization.Codec;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+
+/*
+ * Estado del baston de fuego guardado en su componente conexionb:estado_baston, todo empaquetado en un long:
+ * bits 0-1 modo, 2-9 carga, 10-17 calor, 18-28 ticks de enfriamiento, 29-31 disparos aun sin cobrar en durabilidad
+ * y 32-63 el tick del nivel (ancla) en que se guardo.
+ * La carga y el calor no se escriben cada tick: se guardan en el ancla y cliente y servidor calculan el valor actual
+ * con el tiempo del nivel, asi el stack solo cambia (y se reenvia) al disparar, cambiar de modo o si el servidor
+ * tiene que corregir la prediccion. La durabilidad se cobra cada DISPAROS_POR_DESGASTE disparos y no en cada uno:
+ * cambiar el dano del stack hace que el servidor reenvie el inventario entero.
+ * Los ritmos son constantes y no de la config porque el cliente no recibe la config comun.
+ */
+public record EstadoBaston(long bits) {
+    public static final int MAX_CARGA = 8;
+    public static final int TICKS_POR_CARGA = 20;
+    public static final int MAX_CALOR = 255;
+    public static final int CALOR_POR_DISPARO = 40;
+    // Diferencia de calor entre lo predicho y lo real a partir de la que el servidor reescribe el componente
+    public static final int TOLERANCIA_CALOR = 16;
+    public static final int MAX_ENFRIAMIENTO = (1 << 11) - 1;
+    public static final int DISPAROS_POR_DESGASTE = 8;
+
+    private static final int BITS_MODO = 0;
+    private static final int BITS_CARGA = 2;
+    private static final int BITS_CALOR = 10;
+    private static final int BITS_ENFRIAMIENTO = 18;
+    private static final int BITS_DESGASTE = 29;
+    private static final int BITS_ANCLA = 32;
+    private static final long MAX_ANCLA = (1L << 64 - BITS_ANCLA) - 1;
+
+    public static final EstadoBaston INICIAL = of(BastonModo.NORMAL, MAX_CARGA, 0, 0, 0, 0L);
+
+    public static final Codec<EstadoBaston> CODEC = Codec.LONG.xmap(EstadoBaston::new, EstadoBaston::bits);
+    public static final StreamCodec<ByteBuf, EstadoBaston> STREAM_CODEC =
+            ByteBufCodecs.VAR_LONG.map(EstadoBaston::new, EstadoBaston::bits);
+
+    public static EstadoBaston of(BastonModo modo, int carga, int calor, int enfriamiento, int desgaste, long ancla) {
+        return new EstadoBaston((long) modo.ordinal() << BITS_MODO
+                | (long) Math.clamp(carga, 0, MAX_CARGA) << BITS_CARGA
+                | (long) Math.clamp(calor, 0, MAX_CALOR) << BITS_CALOR
+                | (long) Math.clamp(enfriamiento, 0, MAX_ENFRIAMIENTO) << BITS_ENFRIAMIENTO
+                | (long) Math.floorMod(desgaste, DISPAROS_POR_DESGASTE) << BITS_DESGASTE
+                | Math.clamp(ancla, 0L, MAX_ANCLA) << BITS_ANCLA);
+    }
+
+    public BastonModo modo() {
+        return BastonModo.byId((int) (bits >>> BITS_MODO & 0x3));
+    }
+
+    public int enfriamiento() {
+        return (int) (bits >>> BITS_ENFRIAMIENTO & MAX_ENFRIAMIENTO);
+    }
+
+    public int desgaste() {
+        return (int) (bits >>> BITS_DESGASTE & DISPAROS_POR_DESGASTE - 1);
+    }
+
+    // El disparo que completa DISPAROS_POR_DESGASTE se lleva la durabilidad de todos
+    public boolean cobraDesgaste() {
+        return desgaste() == DISPAROS_POR_DESGASTE - 1;
+    }
+
+    public long ancla() {
+        return bits >>> BITS_ANCLA;
+    }
+
+    private int cargaGuardada() {
+        return (int) (bits >>> BITS_CARGA & 0xFF);
+    }
+
+    private int calorGuardado() {
+        return (int) (bits >>> BITS_CALOR & 0xFF);
+    }
+
+    // En el cliente el ancla puede ir por delante: su tiempo va detras del servidor lo que tarda la red
+    private long transcurrido(long tick) {
+        return Math.max(0L, tick - ancla());
+    }
+
+    /*
+     * Solo en el servidor: un ancla por delante de su tiempo viene de otro mundo o servidor y no dice nada,
+     * asi que se da todo por transcurrido y se vuelve a anclar en tick. Devuelve this si el ancla vale.
+     */
+    public EstadoBaston reanclar(long tick) {
+        return ancla() > tick ? of(modo(), MAX_CARGA, 0, 0, desgaste(), tick) : this;
+    }
+
+    private int enfriamientoRestante(long tick) {
+        return (int) Math.max(0L, enfriamiento() - transcurrido(tick));
+    }
+
+    public int carga(long tick) {
+        return (int) Math.min(MAX_CARGA, cargaGuardada() + transcurrido(tick) / TICKS_POR_CARGA);
+    }
+
+    // El calor baja un punto por tick
+    public int calor(long tick) {
+        return (int) Math.max(0L, calorGuardado() - transcurrido(tick));
+    }
+
+    public boolean enfriando(long tick) {
+        return transcurrido(tick) < enfriamiento();
+    }
+
+    public boolean puedeDisparar(long tick) {
+        return !enfriando(tick) && carga(tick) > 0 && calor(tick) + CALOR_POR_DISPARO <= MAX_CALOR;
+    }
+
+    public EstadoBaston disparar(long tick, int enfriamiento) {
+        return of(modo(), carga(tick) - 1, calor(tick) + CALOR_POR_DISPARO, enfriamiento, desgaste() + 1, tick);
+    }
+
+    public EstadoBaston enfriar(long tick, int enfriamiento) {
+        return of(modo(), carga(tick), calor(tick), enfriamiento, desgaste(), tick);
+    }
+
+    public EstadoBaston conCalor(long tick, int calor) {
+        return of(modo(), carga(tick), calor, enfriamientoRestante(tick), desgaste(), tick);
+    }
+
+    public EstadoBaston conModo(long tick, BastonModo modo) {
+        return of(modo, carga(tick), calor(tick), enfriamientoRestante(tick), desgaste(), tick);
+    }
+}
@@ -0,0 +1,205 @@
+package net.sectordepruebas.tutorialmod.item;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.Stats;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.item.enchantment.EnchantmentHelper;
+import net.minecraft.world.item.enchantment.Enchantments;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.HitResult;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.level.BlockEvent;
+import net.sectordepruebas.tutorialmod.Config;
+import net.sectordepruebas.tutorialmod.fuego.CambiosDeBloques;
+import net.sectordepruebas.tutorialmod.item.util.ModTags;
+import net.sectordepruebas.tutorialmod.item.util.PilasAgrupadas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Minado en area del baston para los bloques del tier zomer (needs_zomer_tool sin incorrect_for_zomer_tool).
+ * Se llama desde mineBlock, que Forge ejecuta antes de quitar el bloque picado: el origen entra en el lote,
+ * asi que todo se rompe de una pasada escribiendo por secciones con CambiosDeBloques y los drops del origen
+ * van a las mismas pilas llenas que el resto (vanilla ya no encuentra bloque y no suelta nada).
+ * La experiencia de todo el lote, origen incluido, sale de una vez en el origen.
+ * Los permisos se miran una vez para la caja del lote y la durabilidad la cobra el baston de una vez.
+ */
+public class MineriaEnArea {
+
+    public static boolean minable(BlockState state) {
+        return state.is(ModTags.Blocks.NECESITA_HERRAMIENTA_ZOMER) && !state.is(ModTags.Blocks.INCORRECT__HERRAMIENTA_ZOMER);
+    }
+
+    // Rompe origen y los bloques del lote a su alrededor y devuelve cuantos rompio ademas del origen
+    public static int minar(ServerLevel level, ServerPlayer player, ItemStack herramienta, BlockPos origen, BlockState estadoOrigen) {
+        Config.Snapshot config = Config.get();
+        if (config.miningMode() == Config.MiningMode.OFF || player.isShiftKeyDown() || herramienta.isEmpty() || !minable(estadoOrigen)) {
+            return 0;
+        }
+        List<BlockPos> lote = config.miningMode() == Config.MiningMode.VEIN
+                ? veta(level, origen, estadoOrigen.getBlock(), config.veinMiningLimit())
+                : area(level, player, origen, config.miningDepth());
+        if (lote.isEmpty() || !permitido(level, player, origen, lote)) {
+            return 0;
+        }
+        quitarProtegidos(level, player, origen, lote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        int extra = lote.size();
+        lote.add(0, origen);
+
+        PilasAgrupadas drops = new PilasAgrupadas();
+        List<BlockState> estados = new ArrayList<>(lote.size());
+        // Forge saca la experiencia de spawnAfterBreak: se lee de getExpDrop con fortuna y toque de seda, como BreakEvent
+        Registry<Enchantment> encantamientos = level.registryAccess().registryOrThrow(Registries.ENCHANTMENT);
+        int fortuna = EnchantmentHelper.getItemEnchantmentLevel(encantamientos.getHolderOrThrow(Enchantments.FORTUNE), herramienta);
+        int seda = EnchantmentHelper.getItemEnchantmentLevel(encantamientos.getHolderOrThrow(Enchantments.SILK_TOUCH), herramienta);
+        int experiencia = 0;
+        for (BlockPos pos : lote) {
+            BlockState state = level.getBlockState(pos);
+            BlockEntity blockEntity = state.hasBlockEntity() ? level.getBlockEntity(pos) : null;
+            for (ItemStack drop : Block.getDrops(state, level, pos, blockEntity, player, herramienta)) {
+                drops.agregar(drop, drop.getCount());
+            }
+            experiencia += state.getExpDrop(level, level.random, pos, fortuna, seda);
+            estados.add(state);
+        }
+        CambiosDeBloques.get(level).aplicarAhora(lote, Blocks.AIR.defaultBlockState());
+        for (int i = 0; i < lote.size(); i++) {
+            BlockState state = estados.get(i);
+            // Sin los items ni la experiencia, que van juntos en el origen: solo los efectos del bloque
+            state.spawnAfterBreak(level, lote.get(i), herramienta, false);
+            player.awardStat(Stats.BLOCK_MINED.get(state.getBlock()));
+        }
+        drops.soltar(level, origen.getX() + 0.5, origen.getY() + 0.5, origen.getZ() + 0.5);
+        if (experiencia > 0) {
+            estadoOrigen.getBlock().popExperience(level, origen, experiencia);
+        }
+        player.causeFoodExhaustion(0.005F * lote.size());
+        return extra;
+    }
+
+    // 3x3 en la cara que mira el jugador, miningDepth bloques hacia dentro
+    private static List<BlockPos> area(ServerLevel level, ServerPlayer player, BlockPos origen, int profundidad) {
+        HitResult hit = player.pick(player.blockInteractionRange(), 1.0F, false);
+        Direction cara = hit instanceof BlockHitResult bloque && bloque.getType() == HitResult.Type.BLOCK
+                ? bloque.getDirection()
+                : Direction.getNearest(player.getLookAngle()).getOpposite();
+        Direction fondo = cara.getOpposite();
+        Direction[] plano = new Direction[2];
+        int n = 0;
+        for (Direction.Axis eje : Direction.Axis.values()) {
+            if (eje != cara.getAxis()) {
+                plano[n++] = Direction.fromAxisAndDirection(eje, Direction.AxisDirection.POSITIVE);
+            }
+        }
+
+        List<BlockPos> lote = new ArrayList<>();
+        for (int d = 0; d < profundidad; d++) {
+            for (int a = -1; a <= 1; a++) {
+                for (int b = -1; b <= 1; b++) {
+                    if (d == 0 && a == 0 && b == 0) {
+                        continue;
+                    }
+                    BlockPos pos = origen.relative(fondo, d).relative(plano[0], a).relative(plano[1], b);
+                    if (rompible(level, pos)) {
+                        lote.add(pos);
+                    }
+                }
+            }
+        }
+        return lote;
+    }
+
+    // Bloques iguales al de origen conectados por cara, arista o esquina, hasta veinMiningLimit
+    private static List<BlockPos> veta(ServerLevel level, BlockPos origen, Block bloque, int limite) {
+        List<BlockPos> lote = new ArrayList<>();
+        LongOpenHashSet vistos = new LongOpenHashSet();
+        LongArrayFIFOQueue frontera = new LongArrayFIFOQueue();
+        vistos.add(origen.asLong());
+        frontera.enqueue(origen.asLong());
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        while (!frontera.isEmpty() && lote.size() < limite) {
+            long actual = frontera.dequeueLong();
+            for (int dx = -1; dx <= 1 && lote.size() < limite; dx++) {
+                for (int dy = -1; dy <= 1 && lote.size() < limite; dy++) {
+                    for (int dz = -1; dz <= 1 && lote.size() < limite; dz++) {
+                        cursor.set(BlockPos.getX(actual) + dx, BlockPos.getY(actual) + dy, BlockPos.getZ(actual) + dz);
+                        if (!vistos.add(cursor.asLong()) || !rompible(level, cursor) || !level.getBlockState(cursor).is(bloque)) {
+                            continue;
+                        }
+                        lote.add(cursor.immutable());
+                        frontera.enqueue(cursor.asLong());
+                    }
+                }
+            }
+        }
+        return lote;
+    }
+
+    private static boolean rompible(ServerLevel level, BlockPos pos) {
+        if (!level.isLoaded(pos)) {
+            return false;
+        }
+        BlockState state = level.getBlockState(pos);
+        return minable(state) && state.getDestroySpeed(level, pos) >= 0.0F;
+    }
+
+    /*
+     * La caja entera tiene que quedar dentro del borde del mundo y fuera de la proteccion del spawn: esta es un
+     * cuadrado alrededor del punto de spawn, asi que basta mirar el punto de la caja mas cercano a el.
+     */
+    private static boolean permitido(ServerLevel level, ServerPlayer player, BlockPos origen, List<BlockPos> lote) {
+        if (!player.mayBuild() || player.blockActionRestricted(level, origen, player.gameMode.getGameModeForPlayer())) {
+            return false;
+        }
+        BoundingBox caja = BoundingBox.encapsulatingPositions(lote).orElseThrow();
+        if (!level.getWorldBorder().isWithinBounds(AABB.of(caja))) {
+            return false;
+        }
+        BlockPos spawn = level.getSharedSpawnPos();
+        BlockPos cercano = new BlockPos(Math.clamp(spawn.getX(), caja.minX(), caja.maxX()),
+                caja.minY(), Math.clamp(spawn.getZ(), caja.minZ(), caja.maxZ()));
+        return level.mayInteract(player, cercano);
+    }
+
+    /*
+     * Los mods de parcelas cancelan el BreakEvent por posicion; uno por bloque seria caro, asi que va uno por chunk
+     * con el primer bloque del lote en el. Si lo cancelan se quitan todos los de ese chunk.
+     * El chunk del origen ya queda cubierto por el BreakEvent que Forge lanzo para el origen.
+     */
+    private static void quitarProtegidos(ServerLevel level, ServerPlayer player, BlockPos origen, List<BlockPos> lote) {
+        LongOpenHashSet permitidos = new LongOpenHashSet();
+        LongOpenHashSet cancelados = new LongOpenHashSet();
+        permitidos.add(ChunkPos.asLong(origen));
+        lote.removeIf(pos -> {
+            long chunk = ChunkPos.asLong(pos);
+            if (permitidos.contains(chunk)) {
+                return false;
+            }
+            if (cancelados.contains(chunk)) {
+                return true;
+            }
+            boolean cancelado = MinecraftForge.EVENT_BUS.post(new BlockEvent.BreakEvent(level, pos, level.getBlockState(pos), player));
+            (cancelado ? cancelados : permitidos).add(chunk);
+            return cancelado;
+        });
+    }
+}
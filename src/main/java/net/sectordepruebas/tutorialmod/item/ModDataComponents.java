@@ -0,0 +1,25 @@
+package net.sectordepruebas.tutorialmod.item;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.registries.Registries;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.RegistryObject;
+import net.sectordepruebas.tutorialmod.bastones;
+public class ModDataComponents {
+
+    /*
+    * Componentes de datos propios de los items del mod
+    * estado_baston guarda modo, carga, calor y enfriamiento del baston de fuego en un solo long
+    */
+    public static final DeferredRegister<DataComponentType<?>> DATA_COMPONENTS =
+            DeferredRegister.create(Registries.DATA_COMPONENT_TYPE, bastones.MOD_ID);
+    public static final RegistryObject<DataComponentType<EstadoBaston>> ESTADO_BASTON = DATA_COMPONENTS.register("estado_baston",
+            () -> DataComponentType.<EstadoBaston>builder()
+                    .persistent(EstadoBaston.CODEC)
+                    .networkSynchronized(EstadoBaston.STREAM_CODEC)
+                    .build());
+    public static void register (IEventBus eventBus) {
+            DATA_COMPONENTS.register(eventBus);
+    }
+
+}
@@ -1,7 +1,5 @@
 package net.sectordepruebas.tutorialmod.item;
 import net.minecraft.world.item.Item;
-import net.minecraft.world.item.SwordItem;
-import net.minecraft.world.item.Tier;
 
 import net.minecraftforge.registries.DeferredRegister;
 import net.minecraftforge.registries.ForgeRegistries;
@@ -17,7 +15,7 @@ public class ModItems {
     public static final DeferredRegister<Item> ITEMS =
             DeferredRegister.create(ForgeRegistries.ITEMS, bastones.MOD_ID);
     public static final RegistryObject<Item> BASTONDEFUEGO = ITEMS.register("bastondefuego",
-            () -> new SwordItem(ModToolsTiers.AMPLITUD_HERRAMIENTAS,new Item.Properties()));
+            () -> new BastonDeFuegoItem(ModToolsTiers.AMPLITUD_HERRAMIENTAS,new Item.Properties()));
     public static void register (IEventBus eventBus) {
             ITEMS.register(eventBus);
     }
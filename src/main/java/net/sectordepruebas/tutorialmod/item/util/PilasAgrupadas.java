@@ -0,0 +1,57 @@
+package net.sectordepruebas.tutorialmod.item.util;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Junta pilas iguales (mismo item y componentes) y las suelta en el menor numero de ItemEntity posible.
+ * Se usa cuando una sola accion del baston suelta muchos items a la vez.
+ */
+public class PilasAgrupadas {
+    private final List<ItemStack> tipos = new ArrayList<>();
+    private final List<long[]> cantidades = new ArrayList<>();
+
+    public void agregar(ItemStack tipo, long cantidad) {
+        if (tipo.isEmpty() || cantidad <= 0) {
+            return;
+        }
+        int i = 0;
+        while (i < tipos.size() && !ItemStack.isSameItemSameComponents(tipos.get(i), tipo)) {
+            i++;
+        }
+        if (i == tipos.size()) {
+            tipos.add(tipo.copyWithCount(1));
+            cantidades.add(new long[]{cantidad});
+        } else {
+            cantidades.get(i)[0] += cantidad;
+        }
+    }
+
+    public boolean vacia() {
+        return tipos.isEmpty();
+    }
+
+    // Devuelve cuantas entidades se crearon
+    public int soltar(ServerLevel level, double x, double y, double z) {
+        int entidades = 0;
+        for (int i = 0; i < tipos.size(); i++) {
+            ItemStack tipo = tipos.get(i);
+            long restante = cantidades.get(i)[0];
+            while (restante > 0) {
+                int count = (int) Math.min(restante, tipo.getMaxStackSize());
+                ItemEntity salida = new ItemEntity(level, x, y, z, tipo.copyWithCount(count), 0.0, 0.1, 0.0);
+                salida.setDefaultPickUpDelay();
+                level.addFreshEntity(salida);
+                restante -= count;
+                entidades++;
+            }
+        }
+        tipos.clear();
+        cantidades.clear();
+        return entidades;
+    }
+}